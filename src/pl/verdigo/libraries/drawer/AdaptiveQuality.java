@@ -0,0 +1,360 @@
+package pl.verdigo.libraries.drawer;
+
+import android.annotation.TargetApi;
+import android.app.ActivityManager;
+import android.content.Context;
+import android.os.Build;
+import android.view.WindowManager;
+
+/**
+ * Adaptive quality controller. Watches frame timings of {@link Drawer}
+ * transitions, drags and switches, and disables the most expensive effect in
+ * use when frames miss their budget. Effects in use are re-enabled one by one
+ * after a series of smooth transitions. Quality level describes the device
+ * rather than a single {@link Drawer}, therefore one instance is shared within
+ * the process, but levels are skipped when they do not change any effect in
+ * use.
+ */
+public class AdaptiveQuality
+{
+
+	/**
+	 * No effects, only {@link Drawer} itself is moved.
+	 */
+	public static final int QUALITY_MINIMAL = 0;
+
+	/**
+	 * Moving content of {@link Drawer} is allowed.
+	 */
+	public static final int QUALITY_MOVE = 1;
+
+	/**
+	 * Moving and fading of {@link Drawer} are allowed.
+	 */
+	public static final int QUALITY_FADE = 2;
+
+	/**
+	 * Moving, fading and scaling of {@link Drawer} are allowed.
+	 */
+	public static final int QUALITY_SCALE = 3;
+
+	/**
+	 * All effects, including 3d transformation, are allowed.
+	 */
+	public static final int QUALITY_FULL = 4;
+
+	static final int EFFECT_FADE = 1 << QUALITY_FADE;
+
+	static final int EFFECT_MOVE = 1 << QUALITY_MOVE;
+
+	static final int EFFECT_SCALE = 1 << QUALITY_SCALE;
+
+	static final int EFFECT_TRANSFORM_3D = 1 << QUALITY_FULL;
+
+	private static final float DEFAULT_REFRESH_RATE = 60f;
+
+	private static final int LOW_MEMORY_CLASS = 32;
+
+	private static final int MEDIUM_MEMORY_CLASS = 64;
+
+	private static final float MISSED_FRAME_RATIO = 1.5f;
+
+	private static final int MISSED_FRAMES_TO_DOWNGRADE = 3;
+
+	private static final int MIN_FRAMES_PER_TRANSITION = 4;
+
+	private static final int SMOOTH_TRANSITIONS_TO_UPGRADE = 5;
+
+	private static final int SMOOTH_TRANSITIONS_TO_UPGRADE_MAX = 80;
+
+	private static AdaptiveQuality sInstance;
+
+	private long mFrameBudget;
+
+	private int mFrames;
+
+	private long mLastFrameTime;
+
+	private int mLevel;
+
+	private int mMissedFrames;
+
+	private boolean mMissedInTransition;
+
+	private int mSmoothTransitions;
+
+	private int mSmoothTransitionsToUpgrade = SMOOTH_TRANSITIONS_TO_UPGRADE;
+
+	private boolean mUpgraded = false;
+
+	/**
+	 * Returns process-wide {@link AdaptiveQuality} instance. On first call
+	 * quality level is chosen based on device memory class and low-RAM status.
+	 *
+	 * @param context Context
+	 * @return AdaptiveQuality object
+	 */
+	public static synchronized AdaptiveQuality getInstance(Context context)
+	{
+		if (sInstance == null)
+		{
+			sInstance = new AdaptiveQuality(getDefaultLevel(context), getRefreshRate(context));
+		}
+
+		return sInstance;
+	}
+
+	/**
+	 * Creates {@link AdaptiveQuality} object.
+	 *
+	 * @param level Initial quality level
+	 * @param refreshRate Display refresh rate in frames per second
+	 */
+	AdaptiveQuality(int level, float refreshRate)
+	{
+		mLevel = level;
+		mFrameBudget = Math.round(1000000000L / refreshRate);
+	}
+
+	/**
+	 * Calculates default quality level for device. Low-RAM devices and devices
+	 * with small memory class start without scaling and 3d transformation.
+	 *
+	 * @param context Context
+	 * @return Quality level
+	 */
+	private static int getDefaultLevel(Context context)
+	{
+		ActivityManager am = (ActivityManager) context.getSystemService(Context.ACTIVITY_SERVICE);
+		int memoryClass = am.getMemoryClass();
+
+		if (isLowRamDevice(am) || memoryClass <= LOW_MEMORY_CLASS)
+		{
+			return QUALITY_FADE;
+		}
+		else if (memoryClass <= MEDIUM_MEMORY_CLASS)
+		{
+			return QUALITY_SCALE;
+		}
+
+		return QUALITY_FULL;
+	}
+
+	private static float getRefreshRate(Context context)
+	{
+		WindowManager wm = (WindowManager) context.getSystemService(Context.WINDOW_SERVICE);
+		float refreshRate = wm.getDefaultDisplay().getRefreshRate();
+
+		return refreshRate >= 1f ? refreshRate : DEFAULT_REFRESH_RATE;
+	}
+
+	@TargetApi(19)
+	private static boolean isLowRamDevice(ActivityManager am)
+	{
+		if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.KITKAT)
+		{
+			return am.isLowRamDevice();
+		}
+
+		return false;
+	}
+
+	/**
+	 * Returns the highest level, not above current one, which allows any of
+	 * given effects, i.e. level of the most expensive effect in use.
+	 *
+	 * @param effects EFFECT_* flags
+	 * @return Quality level, QUALITY_MINIMAL if no effect is in use
+	 */
+	private int getActiveLevel(int effects)
+	{
+		for (int level = mLevel; level > QUALITY_MINIMAL; level--)
+		{
+			if ((effects & (1 << level)) != 0)
+			{
+				return level;
+			}
+		}
+
+		return QUALITY_MINIMAL;
+	}
+
+	/**
+	 * Returns budget of single frame, derived from display refresh rate.
+	 *
+	 * @return Frame budget in nanoseconds
+	 */
+	long getFrameBudget()
+	{
+		return mFrameBudget;
+	}
+
+	/**
+	 * Returns current quality level.
+	 *
+	 * @return One of QUALITY_* constants
+	 */
+	public int getLevel()
+	{
+		return mLevel;
+	}
+
+	/**
+	 * Returns the lowest level above current one which allows any of given
+	 * effects.
+	 *
+	 * @param effects EFFECT_* flags
+	 * @return Quality level, current one if all given effects are allowed
+	 */
+	private int getNextLevel(int effects)
+	{
+		for (int level = mLevel + 1; level <= QUALITY_FULL; level++)
+		{
+			if ((effects & (1 << level)) != 0)
+			{
+				return level;
+			}
+		}
+
+		return mLevel;
+	}
+
+	/**
+	 * Is fading of {@link Drawer} allowed on current quality level.
+	 *
+	 * @return Boolean
+	 */
+	public boolean isFadeAllowed()
+	{
+		return mLevel >= QUALITY_FADE;
+	}
+
+	/**
+	 * Is moving content of {@link Drawer} allowed on current quality level.
+	 *
+	 * @return Boolean
+	 */
+	public boolean isMoveAllowed()
+	{
+		return mLevel >= QUALITY_MOVE;
+	}
+
+	/**
+	 * Is scaling of {@link Drawer} allowed on current quality level.
+	 *
+	 * @return Boolean
+	 */
+	public boolean isScaleAllowed()
+	{
+		return mLevel >= QUALITY_SCALE;
+	}
+
+	/**
+	 * Is 3d transformation of {@link Drawer} allowed on current quality level.
+	 *
+	 * @return Boolean
+	 */
+	public boolean isTransform3dAllowed()
+	{
+		return mLevel >= QUALITY_FULL;
+	}
+
+	/**
+	 * Sets quality level, e.g. restored from previous run of application.
+	 *
+	 * @param level One of QUALITY_* constants
+	 */
+	public void setLevel(int level)
+	{
+		mLevel = Math.max(QUALITY_MINIMAL, Math.min(QUALITY_FULL, level));
+		mSmoothTransitions = 0;
+	}
+
+	/**
+	 * Records single frame of transition or drag. When too many frames miss their
+	 * budget, the most expensive of effects in use which is still allowed is
+	 * disabled. Levels above it are dropped at once, as they would not make
+	 * frames any cheaper.
+	 *
+	 * @param frameTime Frame time in nanoseconds
+	 * @param effects EFFECT_* flags of effects in use
+	 */
+	void onFrame(long frameTime, int effects)
+	{
+		long lastFrameTime = mLastFrameTime;
+		mLastFrameTime = frameTime;
+
+		if (lastFrameTime == 0)
+		{
+			return;
+		}
+
+		mFrames++;
+
+		if (frameTime - lastFrameTime <= mFrameBudget * MISSED_FRAME_RATIO)
+		{
+			return;
+		}
+
+		mMissedInTransition = true;
+		mMissedFrames++;
+
+		int activeLevel = getActiveLevel(effects);
+		if (mMissedFrames < MISSED_FRAMES_TO_DOWNGRADE || activeLevel == QUALITY_MINIMAL)
+		{
+			return;
+		}
+
+		if (mUpgraded)
+		{
+			mSmoothTransitionsToUpgrade = Math.min(mSmoothTransitionsToUpgrade * 2, SMOOTH_TRANSITIONS_TO_UPGRADE_MAX);
+			mUpgraded = false;
+		}
+
+		mLevel = activeLevel - 1;
+		mMissedFrames = 0;
+		mSmoothTransitions = 0;
+	}
+
+	/**
+	 * Marks beginning of transition.
+	 */
+	void onTransitionStart()
+	{
+		mFrames = 0;
+		mLastFrameTime = 0;
+		mMissedFrames = 0;
+		mMissedInTransition = false;
+	}
+
+	/**
+	 * Marks end of transition. After series of smooth transitions the next
+	 * of effects in use is allowed. Transitions are counted only while any
+	 * effect in use is disabled.
+	 *
+	 * @param effects EFFECT_* flags of effects in use
+	 */
+	void onTransitionEnd(int effects)
+	{
+		int nextLevel = getNextLevel(effects);
+
+		if (mMissedInTransition)
+		{
+			mSmoothTransitions = 0;
+		}
+		else if (mFrames >= MIN_FRAMES_PER_TRANSITION && nextLevel > mLevel)
+		{
+			mSmoothTransitions++;
+		}
+
+		if (mSmoothTransitions >= mSmoothTransitionsToUpgrade && nextLevel > mLevel)
+		{
+			mLevel = nextLevel;
+			mSmoothTransitions = 0;
+			mUpgraded = true;
+		}
+
+		mLastFrameTime = 0;
+	}
+
+}
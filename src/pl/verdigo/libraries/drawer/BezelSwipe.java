@@ -1,7 +1,9 @@
 package pl.verdigo.libraries.drawer;
 
+import android.content.res.Configuration;
 import android.graphics.Rect;
 import android.view.MotionEvent;
+import android.view.View;
 import android.view.Window;
 
 /**
@@ -19,16 +21,22 @@ public class BezelSwipe
 
 	private int mIgnoredTopHeight;
 
+	private final Rect mDisplayFrame = new Rect();
+
 	private Drawer mDrawer;
 
 	private boolean mIsBeingDragged = false;
 
+	private int mNotificationBarHeight;
+
 	private int mStartX;
 
 	private int mStartY;
 
 	private int mLeftDragAreaWidth;
 
+	private Window mWindow;
+
 	private int mWindowWidth;
 
 	/**
@@ -44,18 +52,31 @@ public class BezelSwipe
 		mDrawer = drawer;
 		mIgnoredTopHeight = ignoredTopHeight;
 		mLeftDragAreaWidth = leftDragAreaWidth;
-		mWindowWidth = window.getDecorView().getWidth();
+		mWindow = window;
+
+		updateWindowGeometry();
+	}
+
+	private void updateNotificationBarHeight(View decorView)
+	{
+		decorView.getWindowVisibleDisplayFrame(mDisplayFrame);
 
-		updateNotificationBarHeight(window);
+		mNotificationBarHeight = mDisplayFrame.top;
 	}
 
-	private void updateNotificationBarHeight(Window window)
+	/**
+	 * Reads window width and notification bar height. If window has not been
+	 * laid out yet, it will be retried on next touch event.
+	 */
+	private void updateWindowGeometry()
 	{
-		Rect rect = new Rect();
-		window.getDecorView().getWindowVisibleDisplayFrame(rect);
+		View decorView = mWindow.getDecorView();
+		mWindowWidth = decorView.getWidth();
 
-		int notificationHeight = rect.top;
-		mIgnoredTopHeight += notificationHeight;
+		if (mWindowWidth > 0)
+		{
+			updateNotificationBarHeight(decorView);
+		}
 	}
 
 	private void cancelSwipe()
@@ -64,6 +85,17 @@ public class BezelSwipe
 		mStartY = -1;
 	}
 
+	/**
+	 * Handles configuration change. Window geometry will be read again on next
+	 * touch event.
+	 * 
+	 * @param newConfig New configuration
+	 */
+	public void onConfigurationChanged(Configuration newConfig)
+	{
+		mWindowWidth = 0;
+	}
+
 	/**
 	 * Wrapper for dispatching touch events.
 	 * 
@@ -72,10 +104,15 @@ public class BezelSwipe
 	 */
 	public DispatchState dispatchTouchEvent(MotionEvent ev)
 	{
+		if (mWindowWidth == 0)
+		{
+			updateWindowGeometry();
+		}
+
 		int x = Math.round(ev.getX());
 		int y = Math.round(ev.getY());
 
-		if (!mIsBeingDragged && y < mIgnoredTopHeight)
+		if (!mIsBeingDragged && y < mIgnoredTopHeight + mNotificationBarHeight)
 		{
 			return DispatchState.CALL_SUPER;
 		}
@@ -83,7 +120,12 @@ public class BezelSwipe
 		if (ev.getAction() == MotionEvent.ACTION_DOWN)
 		{
 			mIsBeingDragged = false;
-			if (x < mLeftDragAreaWidth && !mDrawer.isRightDrawer())
+			if (!mDrawer.canShowWithTouch())
+			{
+				mStartX = -1;
+				mStartY = -1;
+			}
+			else if (x < mLeftDragAreaWidth && !mDrawer.isRightDrawer())
 			{
 				mStartX = x;
 				mStartY = y;
@@ -99,6 +141,11 @@ public class BezelSwipe
 				mStartY = -1;
 			}
 
+			if (mStartX >= 0)
+			{
+				mDrawer.prewarm();
+			}
+
 			return DispatchState.CALL_SUPER;
 		}
 
@@ -4,27 +4,31 @@ import static android.view.ViewGroup.LayoutParams.FILL_PARENT;
 import pl.verdigo.libraries.drawer.internal.IDrawerProxy;
 import pl.verdigo.libraries.drawer.internal.LeftDrawer;
 import pl.verdigo.libraries.drawer.internal.RightDrawer;
+import pl.verdigo.libraries.drawer.internal.TransitionFreezeLayout;
 import android.app.ActionBar;
 import android.app.Activity;
 import android.content.Context;
 import android.content.res.Configuration;
 import android.graphics.drawable.Drawable;
 import android.os.Build;
-import android.util.FloatMath;
+import android.os.Bundle;
+import android.os.Looper;
+import android.os.MessageQueue.IdleHandler;
+import android.os.Parcelable;
+import android.util.SparseArray;
 import android.view.Gravity;
 import android.view.View;
 import android.view.View.OnClickListener;
 import android.view.View.OnTouchListener;
 import android.view.ViewGroup;
+import android.view.ViewTreeObserver.OnGlobalLayoutListener;
 import android.view.Window;
 import android.view.animation.AccelerateInterpolator;
 import android.view.animation.DecelerateInterpolator;
+import android.view.animation.Interpolator;
 import android.widget.FrameLayout;
 import android.widget.ImageView;
 import android.widget.LinearLayout;
-import com.actionbarsherlock.internal.nineoldandroids.animation.Animator;
-import com.actionbarsherlock.internal.nineoldandroids.animation.Animator.AnimatorListener;
-import com.actionbarsherlock.internal.nineoldandroids.animation.ObjectAnimator;
 
 /**
  * Drawer implementation. TODO create documentation in JavaDoc here.
@@ -42,24 +46,67 @@ public abstract class Drawer implements OnClickListener, OnTouchListener
 
 	protected static final int DRAWER_CONTENT_MOVE_PROPORTION = 5;
 
+	private static final Interpolator ACCELERATE_INTERPOLATOR = new AccelerateInterpolator();
+
+	private static final Interpolator DECELERATE_INTERPOLATOR = new DecelerateInterpolator();
+
 	private static final long DEFAULT_DURATION = 250;
 
 	private static final int DRAWER_SHADOW_WIDTH = 8;
 
+	private static final String STATE_CONTENT = "content";
+
+	private static final String STATE_VISIBLE = "visible";
+
+	private TransitionFreezeLayout mActivityFreeze;
+
 	protected int mActivityWidth;
 
+	private AdaptiveQuality mAdaptiveQuality;
+
 	private boolean mAllowCloseOnTouch = true;
 
 	private long mAnimationDuration = DEFAULT_DURATION;
 
 	private boolean mAnimationEnabled = true;
 
+	private int mAnimationFrom;
+
+	private boolean mAnimationShow;
+
+	private int mAnimationTo;
+
+	private Drawable mBackgroundDrawable;
+
+	private int mBackgroundResource = 0;
+
+	private TransitionFreezeLayout mContentFreeze;
+
 	private Context mContext;
 
 	private FrameLayout mDecorView;
 
 	protected int mDeviation = 0;
 
+	private final FrameSource.Callback mDragFrameCallback = new FrameSource.Callback()
+	{
+		public void onFrame(long frameTime)
+		{
+			if (((Activity) mContext).isFinishing())
+			{
+				trackDragEnd();
+				return;
+			}
+
+			trackFrame(frameTime);
+			mDragFrameSource.post();
+		}
+	};
+
+	private FrameSource mDragFrameSource;
+
+	private boolean mDragTracked = false;
+
 	protected View mDrawer;
 
 	protected View mDrawerActivity;
@@ -70,6 +117,10 @@ public abstract class Drawer implements OnClickListener, OnTouchListener
 
 	private DrawerListener mDrawerListener;
 
+	private DrawerManager mDrawerManager;
+
+	private IDrawerProxy mDrawerProxy;
+
 	protected View mDrawerShadow;
 
 	protected boolean mFadeDrawer = false;
@@ -78,8 +129,48 @@ public abstract class Drawer implements OnClickListener, OnTouchListener
 
 	private float mDrawerWidthLand = -40;
 
+	private boolean mFreezeDuringTransition = false;
+
+	private boolean mFrozen = false;
+
+	private FrameLayout mHostView;
+
+	private boolean mInitialized = false;
+
 	private int mLayout;
 
+	private final OnGlobalLayoutListener mLayoutListener = new OnGlobalLayoutListener()
+	{
+		public void onGlobalLayout()
+		{
+			int width = mDecorView.getWidth() - mDecorView.getPaddingLeft() - mDecorView.getPaddingRight();
+			if (width <= 0)
+			{
+				return;
+			}
+
+			mDrawerActivity.getViewTreeObserver().removeGlobalOnLayoutListener(this);
+
+			if (mTransitionDriver.isRunning(mTransitionClient)
+					|| (mDrawerManager != null && mDrawerManager.isSwitching(Drawer.this)))
+			{
+				mTransitionDriver.end();
+			}
+
+			mActivityWidth = width;
+			mDrawerProxy = null;
+			updateDrawerWidth();
+
+			if (mVisible)
+			{
+				setPosition(getTargetPosition());
+				updateDrawerClickable();
+			}
+
+			restoreVisibility();
+		}
+	};
+
 	protected boolean mMovable = true;
 
 	protected boolean mMoved = false;
@@ -94,8 +185,80 @@ public abstract class Drawer implements OnClickListener, OnTouchListener
 
 	private Window mParentWindow;
 
+	private int mPosition = 0;
+
+	private SparseArray<Parcelable> mRestoredContentState;
+
+	private boolean mRestoreVisible = false;
+
+	private final IdleHandler mPrewarmHandler = new IdleHandler()
+	{
+		public boolean queueIdle()
+		{
+			if (mInitialized || ((Activity) mContext).isFinishing())
+			{
+				return false;
+			}
+
+			View decorView = mParentWindow.getDecorView();
+			if (decorView.getWidth() == 0)
+			{
+				decorView.getViewTreeObserver().addOnGlobalLayoutListener(mPrewarmLayoutListener);
+				return false;
+			}
+
+			prewarm();
+			return false;
+		}
+	};
+
+	private final OnGlobalLayoutListener mPrewarmLayoutListener = new OnGlobalLayoutListener()
+	{
+		public void onGlobalLayout()
+		{
+			View decorView = mParentWindow.getDecorView();
+			if (decorView.getWidth() == 0)
+			{
+				return;
+			}
+
+			decorView.getViewTreeObserver().removeGlobalOnLayoutListener(this);
+
+			if (!mInitialized)
+			{
+				Looper.myQueue().removeIdleHandler(mPrewarmHandler);
+				Looper.myQueue().addIdleHandler(mPrewarmHandler);
+			}
+		}
+	};
+
 	private boolean mReuse = false;
 
+	private final TransitionDriver.Client mTransitionClient = new TransitionDriver.Client()
+	{
+		public void onTransitionFrame(float fraction, long frameTime)
+		{
+			trackFrame(frameTime);
+			setPosition(mAnimationFrom + Math.round((mAnimationTo - mAnimationFrom) * fraction));
+		}
+
+		public void onTransitionEnd(boolean canceled)
+		{
+			trackTransitionEnd();
+
+			if (mAnimationShow)
+			{
+				finishShowing();
+			}
+			else if (!canceled || !mVisible)
+			{
+				removeDrawer();
+			}
+		}
+	};
+
+	private TransitionDriver mTransitionDriver = new TransitionDriver();
+
 	protected boolean mScaleDrawer = false;
 
 	protected int mShadowWidth = DRAWER_SHADOW_WIDTH;
@@ -132,23 +295,47 @@ public abstract class Drawer implements OnClickListener, OnTouchListener
 	}
 
 	/**
-	 * Calculates duration of animation. When {@link Drawer} is in state of
-	 * moving, duration of animation will be calculated based on the position.
+	 * Animates position of {@link Drawer} with {@link TransitionDriver}.
+	 * Running transition is canceled first.
+	 * 
+	 * @param from Start position
+	 * @param to End position
+	 * @param interpolator Interpolator
+	 * @param duration Duration in milliseconds
+	 * @param show Whether {@link Drawer} is being shown or canceled
+	 */
+	private void animatePosition(int from, int to, Interpolator interpolator, long duration, boolean show)
+	{
+		mTransitionDriver.cancel();
+
+		mAnimationFrom = from;
+		mAnimationTo = to;
+		mAnimationShow = show;
+
+		startTransition();
+		mTransitionDriver.start(mTransitionClient, interpolator, duration);
+	}
+
+	/**
+	 * Calculates duration of animation. Duration is proportional to the
+	 * distance left from current position, so animation started while
+	 * {@link Drawer} is moved by touch or by another animation is
+	 * appropriately shortened.
 	 * 
 	 * @param show Animation for showing/hiding
 	 * @return time in milliseconds
 	 */
-	private long calculateDuration(boolean show)
+	long calculateDuration(boolean show)
 	{
-		if (mMoved)
+		int drawerWidth = getDrawerWidth();
+		if (drawerWidth <= 0)
 		{
-			float ratio = (float) mMovedPosition / getDrawerWidth();
-			long duration = Math.round(mAnimationDuration * (show ? 1F - ratio : ratio));
-
-			return duration >= 0 ? duration : -1 * duration;
+			return mAnimationDuration;
 		}
 
-		return mAnimationDuration;
+		float ratio = Math.min(1F, Math.abs((float) mPosition / drawerWidth));
+
+		return Math.round(mAnimationDuration * (show ? 1F - ratio : ratio));
 	}
 
 	/**
@@ -157,21 +344,11 @@ public abstract class Drawer implements OnClickListener, OnTouchListener
 	 */
 	public final void cancel()
 	{
-		if (!mVisible)
+		if (!prepareCancel())
 		{
 			return;
 		}
 
-		if (mDrawerListener != null)
-		{
-			mDrawerListener.onDrawerBeforeCancel();
-		}
-
-		mVisible = false;
-
-		mDrawerClickable.setOnClickListener(null);
-		mDrawerClickable.setOnTouchListener(null);
-
 		if (mAnimationEnabled)
 		{
 			cancelWithAnimation();
@@ -184,38 +361,15 @@ public abstract class Drawer implements OnClickListener, OnTouchListener
 
 	/**
 	 * Plays cancel animation. It slides {@link Drawer} from right to left. If
-	 * drawer is currently moved by touch event, animation will start from
-	 * current position and will be appropriately shortened.
+	 * drawer is currently moved by touch event or by another animation,
+	 * animation will start from current position and will be appropriately
+	 * shortened.
 	 */
 	private void cancelWithAnimation()
 	{
-		final int start = mMoved ? mMovedPosition : getTargetPosition();
+		final int start = getCurrentPosition();
 
-		ObjectAnimator anim = ObjectAnimator.ofInt(createDrawerProxy(), "position", start, 0);
-		anim.setInterpolator(new DecelerateInterpolator());
-		anim.setDuration(calculateDuration(false));
-		anim.addListener(new AnimatorListener()
-		{
-			public void onAnimationStart(Animator animation)
-			{
-			}
-
-			public void onAnimationEnd(Animator animation)
-			{
-				removeDrawer();
-			}
-
-			public void onAnimationCancel(Animator animation)
-			{
-			}
-
-			public void onAnimationRepeat(Animator animation)
-			{
-			}
-
-		});
-
-		anim.start();
+		animatePosition(start, 0, DECELERATE_INTERPOLATOR, calculateDuration(false), false);
 	}
 
 	/**
@@ -237,6 +391,17 @@ public abstract class Drawer implements OnClickListener, OnTouchListener
 		mAnimationEnabled = animationEnabled;
 	}
 
+	/**
+	 * Can {@link Drawer} be opened by touch. It can't when other
+	 * {@link Drawer} managed by the same {@link DrawerManager} is visible.
+	 * 
+	 * @return Boolean
+	 */
+	boolean canShowWithTouch()
+	{
+		return mDrawerManager == null || !mDrawerManager.isOtherVisible(this);
+	}
+
 	/**
 	 * Creates DrawerProxy object.
 	 * 
@@ -244,8 +409,96 @@ public abstract class Drawer implements OnClickListener, OnTouchListener
 	 */
 	protected abstract IDrawerProxy createDrawerProxy();
 
+	/**
+	 * Returns DrawerProxy object, creates it if necessary. DrawerProxy keeps
+	 * geometry of {@link Drawer}, therefore it is recreated after
+	 * initialization and configuration change.
+	 * 
+	 * @return DrawerProxy object
+	 */
+	protected IDrawerProxy getDrawerProxy()
+	{
+		if (mDrawerProxy == null)
+		{
+			mDrawerProxy = createDrawerProxy();
+		}
+
+		return mDrawerProxy;
+	}
+
+	/**
+	 * Freezes layout and invalidation of {@link Activity} content and
+	 * {@link Drawer} content until {@link Drawer} settles. Does nothing unless
+	 * enabled with {@link #setFreezeDuringTransition(boolean)}.
+	 */
+	protected void freezeContent()
+	{
+		setContentFrozen(true);
+	}
+
+	/**
+	 * Returns key under which state of {@link Drawer} is saved. Left and
+	 * right drawer use separate keys, so both can be saved in one Bundle.
+	 * 
+	 * @param name State name
+	 * @return Key
+	 */
+	private String getStateKey(String name)
+	{
+		return Drawer.class.getName() + (isRightDrawer() ? ":right:" : ":left:") + name;
+	}
+
 	protected abstract int getTargetPosition();
 
+	/**
+	 * Returns effects enabled for {@link Drawer}, whether or not currently
+	 * allowed by {@link AdaptiveQuality}.
+	 * 
+	 * @return AdaptiveQuality.EFFECT_* flags
+	 */
+	private int getRequestedEffects()
+	{
+		int effects = 0;
+
+		if (mFadeDrawer)
+		{
+			effects |= AdaptiveQuality.EFFECT_FADE;
+		}
+
+		if (mMoveDrawer)
+		{
+			effects |= AdaptiveQuality.EFFECT_MOVE;
+		}
+
+		if (mScaleDrawer)
+		{
+			effects |= AdaptiveQuality.EFFECT_SCALE;
+		}
+
+		if (mTransform3dDrawer)
+		{
+			effects |= AdaptiveQuality.EFFECT_TRANSFORM_3D;
+		}
+
+		return effects;
+	}
+
+	TransitionDriver getTransitionDriver()
+	{
+		return mTransitionDriver;
+	}
+
+	/**
+	 * Returns current position of {@link Drawer}, i.e. position last applied
+	 * by touch, animation or {@link DrawerManager}.
+	 * 
+	 * @return Position in pixels
+	 */
+	protected int getCurrentPosition()
+	{
+		return mPosition;
+	}
+
 	/**
 	 * Returns {@link Drawer} width. Value provided by developer is in DPI,
 	 * therefore it has to be calculated into pixels.
@@ -267,7 +520,7 @@ public abstract class Drawer implements OnClickListener, OnTouchListener
 			width = (mActivityWidth / density) - Math.abs(width);
 		}
 
-		return (int) FloatMath.ceil(width * density);
+		return (int) Math.ceil(width * density);
 	}
 
 	protected abstract boolean isRightDrawer();
@@ -276,22 +529,53 @@ public abstract class Drawer implements OnClickListener, OnTouchListener
 	 * Initialize {@link Drawer}. Drawer's layout is injected into
 	 * most-top-level {@link FrameLayout) possible, this gives us an ability to
 	 * move {@link ActionBar}. Clickable {@link ImageView} is also created to
-	 * handle click and touch events.
+	 * handle click and touch events. Does nothing if {@link Drawer} is already
+	 * initialized. {@link Drawer} restored as opened by
+	 * {@link #onRestoreInstanceState(Bundle)} is opened once {@link Activity}
+	 * is laid out.
 	 */
 	public void init()
 	{
+		if (mInitialized && !mNeedToReinitialize)
+		{
+			return;
+		}
+
+		attach();
+
+		if (mActivityWidth > 0)
+		{
+			restoreVisibility();
+		}
+	}
+
+	/**
+	 * Injects layout of {@link Drawer} into {@link Activity}, see
+	 * {@link #init()}.
+	 */
+	private void attach()
+	{
+		Looper.myQueue().removeIdleHandler(mPrewarmHandler);
+
 		mDecorView = (FrameLayout) mParentWindow.getDecorView();
 		mDrawerActivity = (ViewGroup) mDecorView.getChildAt(0);
+		mHostView = mDrawerManager != null ? mDrawerManager.getHostView(mDecorView) : mDecorView;
 
 		mActivityWidth = mDrawerActivity.getWidth();
+		if (mActivityWidth == 0)
+		{
+			mDrawerActivity.getViewTreeObserver().addOnGlobalLayoutListener(mLayoutListener);
+		}
+
+		mDrawerProxy = null;
 
 		mDrawer = View.inflate(mContext, R.layout.drawer_placeholder, null);
 		mDrawer.setPadding(0, mDrawerActivity.getPaddingTop(), 0, mDrawerActivity.getPaddingBottom());
-		mDecorView.addView(mDrawer);
+		mHostView.addView(mDrawer);
 
 		mDrawerShadow = new LinearLayout(mContext);
 		mDrawerShadow.setVisibility(View.GONE);
-		mDecorView.addView(mDrawerShadow);
+		mHostView.addView(mDrawerShadow);
 
 		ImageView shadow = new ImageView(mContext);
 		shadow.setLayoutParams(new LinearLayout.LayoutParams(mShadowWidth, FILL_PARENT));
@@ -300,16 +584,78 @@ public abstract class Drawer implements OnClickListener, OnTouchListener
 
 		mDrawerClickable = new ImageView(mContext);
 		mDrawerClickable.setVisibility(View.GONE);
-		mDecorView.addView(mDrawerClickable);
+		mHostView.addView(mDrawerClickable);
 
 		LinearLayout.LayoutParams lp = new LinearLayout.LayoutParams(FILL_PARENT, FILL_PARENT);
 
+		View content = View.inflate(mContext, mLayout, null);
+		mContentFreeze = null;
+
+		if (mFreezeDuringTransition)
+		{
+			mActivityFreeze = wrapActivityContent();
+
+			mContentFreeze = new TransitionFreezeLayout(mContext);
+			mContentFreeze.addView(content, new FrameLayout.LayoutParams(FILL_PARENT, FILL_PARENT));
+			content = mContentFreeze;
+		}
+
 		mDrawerContent = (LinearLayout) mDrawer.findViewById(R.id.drawer_content);
-		mDrawerContent.addView(View.inflate(mContext, mLayout, null), lp);
+		mDrawerContent.addView(content, lp);
+
+		if (mRestoredContentState != null)
+		{
+			mDrawerContent.restoreHierarchyState(mRestoredContentState);
+			mRestoredContentState = null;
+		}
+
+		if (mBackgroundDrawable != null)
+		{
+			setBackgroundDrawable(mBackgroundDrawable);
+		}
+		else if (mBackgroundResource != 0)
+		{
+			setBackgroundResource(mBackgroundResource);
+		}
+
+		mInitialized = true;
+		mNeedToReinitialize = false;
 
 		updateDrawerWidth();
 	}
 
+	/**
+	 * Initialize {@link Drawer} lazily. Nothing is inflated or injected into
+	 * {@link Activity} at this point, it happens on first {@link #show()}, first
+	 * bezel swipe or when main thread becomes idle after {@link Activity} has
+	 * been laid out, whichever comes first. This keeps drawer setup out of
+	 * {@link Activity} startup. Until {@link Activity} is laid out, idle
+	 * handler is replaced by layout listener of its window, so nothing
+	 * outlives {@link Activity} which finishes before that.
+	 */
+	public void initLazily()
+	{
+		if (mInitialized)
+		{
+			return;
+		}
+
+		mNeedToReinitialize = true;
+
+		Looper.myQueue().removeIdleHandler(mPrewarmHandler);
+		Looper.myQueue().addIdleHandler(mPrewarmHandler);
+	}
+
+	/**
+	 * Is adaptive quality enabled.
+	 * 
+	 * @return Boolean
+	 */
+	public boolean isAdaptiveQuality()
+	{
+		return mAdaptiveQuality != null;
+	}
+
 	/**
 	 * Is closing {link Drawer} on touch events allowed. Used primarily with Bezel Swipe.
 	 * 
@@ -340,6 +686,26 @@ public abstract class Drawer implements OnClickListener, OnTouchListener
 		return mFadeDrawer;
 	}
 
+	/**
+	 * Is fading {@link Drawer} enabled and allowed by adaptive quality.
+	 * 
+	 * @return Boolean
+	 */
+	protected boolean isFadeActive()
+	{
+		return mFadeDrawer && (mAdaptiveQuality == null || mAdaptiveQuality.isFadeAllowed());
+	}
+
+	/**
+	 * Is layout of content frozen during transitions.
+	 * 
+	 * @return Boolean
+	 */
+	public boolean isFreezeDuringTransition()
+	{
+		return mFreezeDuringTransition;
+	}
+
 	/**
 	 * Is {@link Drawer} movable with touch events.
 	 * 
@@ -360,6 +726,27 @@ public abstract class Drawer implements OnClickListener, OnTouchListener
 		return mMoveDrawer;
 	}
 
+	/**
+	 * Is moving content of {@link Drawer} enabled and allowed by adaptive
+	 * quality.
+	 * 
+	 * @return Boolean
+	 */
+	protected boolean isMoveActive()
+	{
+		return mMoveDrawer && (mAdaptiveQuality == null || mAdaptiveQuality.isMoveAllowed());
+	}
+
+	/**
+	 * Is content of {@link Drawer} reused.
+	 * 
+	 * @return Boolean
+	 */
+	public boolean isReuse()
+	{
+		return mReuse;
+	}
+
 	/**
 	 * Is scaling of {@link Drawer} enabled.
 	 * 
@@ -371,36 +758,202 @@ public abstract class Drawer implements OnClickListener, OnTouchListener
 	}
 
 	/**
-	 * Is 3d transformation of {@link Drawer} enabled.
+	 * Is scaling of {@link Drawer} enabled and allowed by adaptive quality.
+	 * 
+	 * @return Boolean
+	 */
+	protected boolean isScaleActive()
+	{
+		return mScaleDrawer && (mAdaptiveQuality == null || mAdaptiveQuality.isScaleAllowed());
+	}
+
+	/**
+	 * Is 3d transformation of {@link Drawer} enabled.
+	 * 
+	 * @return Boolean
+	 */
+	public boolean isTransform3dDrawer()
+	{
+		return mTransform3dDrawer;
+	}
+
+	/**
+	 * Is 3d transformation of {@link Drawer} enabled and allowed by adaptive
+	 * quality.
+	 * 
+	 * @return Boolean
+	 */
+	protected boolean isTransform3dActive()
+	{
+		return mTransform3dDrawer && (mAdaptiveQuality == null || mAdaptiveQuality.isTransform3dAllowed());
+	}
+
+	/**
+	 * Is drawer currently visible. If it is not visible, internal objects are
+	 * destroyed and {@link Drawer} should not be used.
+	 * 
+	 * @return Boolean
+	 */
+	public boolean isVisible()
+	{
+		return mVisible;
+	}
+
+	/**
+	 * Handles click event.
+	 * 
+	 * @param view Clicked view
+	 */
+	public void onClick(View view)
+	{
+		if (view == mDrawerClickable)
+		{
+			cancel();
+		}
+	}
+
+	/**
+	 * Handles configuration change of {@link Activity} which declares it in
+	 * android:configChanges. Geometry of {@link Drawer} is recalculated after
+	 * next layout and existing views are laid out again. Opened
+	 * {@link Drawer} stays opened, running animation of {@link Drawer} is
+	 * completed at once, as its positions are no longer valid.
+	 * {@link BezelSwipe} has to be notified separately, with
+	 * {@link BezelSwipe#onConfigurationChanged(Configuration)}.
+	 * 
+	 * @param newConfig New configuration
+	 */
+	public void onConfigurationChanged(Configuration newConfig)
+	{
+		if (!mInitialized || mNeedToReinitialize)
+		{
+			return;
+		}
+
+		mDrawerActivity.getViewTreeObserver().removeGlobalOnLayoutListener(mLayoutListener);
+		mDrawerActivity.getViewTreeObserver().addOnGlobalLayoutListener(mLayoutListener);
+	}
+
+	/**
+	 * Restores state of {@link Drawer} saved by
+	 * {@link #onSaveInstanceState(Bundle)}. If {@link Drawer} was opened it
+	 * will be opened again, without animation, as soon as {@link Activity} is
+	 * laid out. Lazily attached {@link Drawer} is initialized in that case,
+	 * otherwise it is opened at the end of {@link #init()}, which may be
+	 * called later.
+	 * 
+	 * @param savedInstanceState Bundle passed to {@link Activity}
+	 */
+	public void onRestoreInstanceState(Bundle savedInstanceState)
+	{
+		if (savedInstanceState == null)
+		{
+			return;
+		}
+
+		mRestoredContentState = savedInstanceState.getSparseParcelableArray(getStateKey(STATE_CONTENT));
+		mRestoreVisible = savedInstanceState.getBoolean(getStateKey(STATE_VISIBLE), false);
+
+		if (mInitialized && !mNeedToReinitialize && mRestoredContentState != null)
+		{
+			mDrawerContent.restoreHierarchyState(mRestoredContentState);
+			mRestoredContentState = null;
+		}
+
+		if (!mRestoreVisible)
+		{
+			return;
+		}
+
+		if (mNeedToReinitialize)
+		{
+			init();
+		}
+		else if (mInitialized && mActivityWidth > 0)
+		{
+			restoreVisibility();
+		}
+	}
+
+	/**
+	 * Saves opened/closed state of {@link Drawer} and state of its content.
+	 * Should be called from {@link Activity#onSaveInstanceState(Bundle)}.
+	 * 
+	 * @param outState Bundle in which to place saved state
+	 */
+	public void onSaveInstanceState(Bundle outState)
+	{
+		outState.putBoolean(getStateKey(STATE_VISIBLE), mVisible);
+
+		if (mInitialized && !mNeedToReinitialize)
+		{
+			SparseArray<Parcelable> contentState = new SparseArray<Parcelable>();
+			mDrawerContent.saveHierarchyState(contentState);
+
+			outState.putSparseParcelableArray(getStateKey(STATE_CONTENT), contentState);
+		}
+	}
+
+	/**
+	 * Prepares {@link Drawer} for closing: notifies listener, marks it as not
+	 * visible and stops handling clicks outside of it.
 	 * 
-	 * @return Boolean
+	 * @return false if {@link Drawer} is not visible
 	 */
-	public boolean isTransform3dDrawer()
+	boolean prepareCancel()
 	{
-		return mTransform3dDrawer;
+		if (!mVisible)
+		{
+			return false;
+		}
+
+		if (mDrawerListener != null)
+		{
+			mDrawerListener.onDrawerBeforeCancel();
+		}
+
+		mVisible = false;
+
+		mDrawerClickable.setOnClickListener(null);
+		mDrawerClickable.setOnTouchListener(null);
+
+		freezeContent();
+
+		return true;
 	}
 
 	/**
-	 * Is drawer currently visible. If it is not visible, internal objects are
-	 * destroyed and {@link Drawer} should not be used.
-	 * 
-	 * @return Boolean
+	 * Prepares {@link Drawer} for showing: initializes it if needed, notifies
+	 * listener and marks it as visible.
 	 */
-	public boolean isVisible()
+	void prepareShow()
 	{
-		return mVisible;
+		if (mNeedToReinitialize)
+		{
+			attach();
+		}
+
+		if (mDrawerListener != null)
+		{
+			mDrawerListener.onDrawerBeforeShow();
+		}
+
+		mMoved = false;
+		mMovedPosition = 0;
+		mVisible = true;
+
+		freezeContent();
 	}
 
 	/**
-	 * Handles click event.
-	 * 
-	 * @param view Clicked view
+	 * Initialize lazily attached {@link Drawer} ahead of first
+	 * {@link #show()}. Does nothing if {@link Drawer} is already initialized.
 	 */
-	public void onClick(View view)
+	public void prewarm()
 	{
-		if (view == mDrawerClickable)
+		if (!mInitialized)
 		{
-			cancel();
+			init();
 		}
 	}
 
@@ -413,6 +966,9 @@ public abstract class Drawer implements OnClickListener, OnTouchListener
 		mMovedPosition = 0;
 		mDeviation = 0;
 		mMoved = false;
+		mPosition = 0;
+
+		setContentFrozen(false);
 		
 		ViewGroup.LayoutParams lp = ((ViewGroup) mDrawerActivity).getLayoutParams();
 		lp.width = -1;
@@ -438,13 +994,38 @@ public abstract class Drawer implements OnClickListener, OnTouchListener
 			return;
 		}
 
-		mDecorView.removeView(mDrawer);
-		mDecorView.removeView(mDrawerClickable);
-		mDecorView.removeView(mDrawerShadow);
+		mHostView.removeView(mDrawer);
+		mHostView.removeView(mDrawerClickable);
+		mHostView.removeView(mDrawerShadow);
 
 		mNeedToReinitialize = true;
 	}
 
+	/**
+	 * Shows {@link Drawer} restored from saved state.
+	 */
+	private void restoreVisibility()
+	{
+		if (mRestoreVisible)
+		{
+			mRestoreVisible = false;
+			showWithoutAnimation();
+		}
+	}
+
+	/**
+	 * Sets whether effects should be adapted to device performance. When
+	 * enabled, the most expensive effects are disabled as soon as transitions
+	 * miss their frame budget and re-enabled once performance allows. See
+	 * {@link AdaptiveQuality}.
+	 * 
+	 * @param adaptiveQuality true/false
+	 */
+	public void setAdaptiveQuality(boolean adaptiveQuality)
+	{
+		mAdaptiveQuality = adaptiveQuality ? AdaptiveQuality.getInstance(mContext) : null;
+	}
+
 	/**
 	 * Sets whether closing {@link Drawer} is available on touch events.
 	 * 
@@ -483,6 +1064,14 @@ public abstract class Drawer implements OnClickListener, OnTouchListener
 	 */
 	public void setBackgroundDrawable(Drawable drawable)
 	{
+		mBackgroundDrawable = drawable;
+		mBackgroundResource = 0;
+
+		if (mDrawerContent == null)
+		{
+			return;
+		}
+
 		mDrawerContent.setBackgroundDrawable(drawable);
 		mDrawerContent.setPadding(0, 0, 0, 0);
 	}
@@ -495,10 +1084,62 @@ public abstract class Drawer implements OnClickListener, OnTouchListener
 	 */
 	public void setBackgroundResource(int drawable)
 	{
+		mBackgroundDrawable = null;
+		mBackgroundResource = drawable;
+
+		if (mDrawerContent == null)
+		{
+			return;
+		}
+
 		mDrawerContent.setBackgroundResource(drawable);
 		mDrawerContent.setPadding(0, 0, 0, 0);
 	}
 
+	/**
+	 * Freezes or thaws content, see {@link #freezeContent()}.
+	 * 
+	 * @param frozen true/false
+	 */
+	private void setContentFrozen(boolean frozen)
+	{
+		if (frozen == mFrozen || (frozen && !mFreezeDuringTransition))
+		{
+			return;
+		}
+
+		mFrozen = frozen;
+
+		if (frozen && mInitialized && (mActivityFreeze == null || mActivityFreeze.getParent() == null))
+		{
+			mActivityFreeze = wrapActivityContent();
+		}
+
+		if (mActivityFreeze != null)
+		{
+			if (frozen)
+			{
+				mActivityFreeze.freeze();
+			}
+			else
+			{
+				mActivityFreeze.thaw();
+			}
+		}
+
+		if (mContentFreeze != null)
+		{
+			if (frozen)
+			{
+				mContentFreeze.freeze();
+			}
+			else
+			{
+				mContentFreeze.thaw();
+			}
+		}
+	}
+
 	/**
 	 * Sets {@link DrawerListener} listener.
 	 * 
@@ -549,6 +1190,27 @@ public abstract class Drawer implements OnClickListener, OnTouchListener
 		mFadeDrawer = fadeDrawer;
 	}
 
+	/**
+	 * Sets whether layout of {@link Activity} content and {@link Drawer}
+	 * content is frozen while {@link Drawer} is dragged or animated. Layout
+	 * requests and invalidations made by their children (list updates, images
+	 * loaded in background etc.) are deferred and applied in a single pass
+	 * once {@link Drawer} settles, so they do not compete with the transition
+	 * for frame time. Changes made during transition therefore show up only
+	 * after it ends. Has to be set before {@link #init()}, children of
+	 * android.R.id.content are moved into a freezable container at that time.
+	 * Content set later with setContentView() is wrapped again on next
+	 * transition. Views added directly to android.R.id.content afterwards,
+	 * e.g. fragments, stay outside of the container and are not frozen, so
+	 * fragments should be added to a container inside the content view.
+	 * 
+	 * @param freezeDuringTransition true/false
+	 */
+	public void setFreezeDuringTransition(boolean freezeDuringTransition)
+	{
+		mFreezeDuringTransition = freezeDuringTransition;
+	}
+
 	/**
 	 * Sets whether {@link Drawer} is movable by touch events.
 	 * 
@@ -589,6 +1251,31 @@ public abstract class Drawer implements OnClickListener, OnTouchListener
 		this.mScaleDrawer = scaleDrawer;
 	}
 
+	/**
+	 * Attaches {@link Drawer} to {@link DrawerManager}. Views are injected into
+	 * its shared host view and transitions are run by its shared
+	 * {@link TransitionDriver}.
+	 * 
+	 * @param drawerManager DrawerManager
+	 */
+	void setDrawerManager(DrawerManager drawerManager)
+	{
+		mDrawerManager = drawerManager;
+		mTransitionDriver = drawerManager.getTransitionDriver();
+	}
+
+	/**
+	 * Sets position of {@link Drawer} and remembers it, so following
+	 * animation starts where {@link Drawer} actually is.
+	 * 
+	 * @param position Position in pixels
+	 */
+	protected void setPosition(int position)
+	{
+		mPosition = position;
+		getDrawerProxy().setPosition(position);
+	}
+
 	/**
 	 * Sets shadow width
 	 * 
@@ -624,19 +1311,12 @@ public abstract class Drawer implements OnClickListener, OnTouchListener
 			return;
 		}
 
-		if (mNeedToReinitialize)
-		{
-			init();
-		}
-
-		if (mDrawerListener != null)
+		if (mDrawerManager != null && mDrawerManager.switchTo(this))
 		{
-			mDrawerListener.onDrawerBeforeShow();
+			return;
 		}
 
-		mMoved = false;
-		mMovedPosition = 0;
-		mVisible = true;
+		prepareShow();
 
 		if (isAnimationEnabled())
 		{
@@ -644,8 +1324,7 @@ public abstract class Drawer implements OnClickListener, OnTouchListener
 		}
 		else
 		{
-			IDrawerProxy proxy = createDrawerProxy();
-			proxy.setPosition(getDrawerWidth());
+			setPosition(getTargetPosition());
 
 			updateDrawerClickable();
 			updateDrawerShadow();
@@ -654,16 +1333,37 @@ public abstract class Drawer implements OnClickListener, OnTouchListener
 		}
 	}
 
+	/**
+	 * Shows {@link Drawer} without animation. This is equivalent to
+	 * <pre>
+	 * boolean previous = drawer.isAnimationEnabled();
+	 * drawer.setAnimationEnabled(false);
+	 * drawer.show();
+	 * drawer.setAnimationEnabled(previous);
+	 * </pre>
+	 */
+	public final void showWithoutAnimation()
+	{
+		boolean animationEnabled = mAnimationEnabled;
+		mAnimationEnabled = false;
+
+		show();
+
+		mAnimationEnabled = animationEnabled;
+	}
+
 	void showWithTouch(int deviation)
 	{
-		if (isVisible())
+		if (isVisible() || !canShowWithTouch())
 		{
 			return;
 		}
 
+		mTransitionDriver.cancel();
+
 		if (mNeedToReinitialize)
 		{
-			init();
+			attach();
 		}
 
 		mMoved = true;
@@ -671,8 +1371,7 @@ public abstract class Drawer implements OnClickListener, OnTouchListener
 		mVisible = true;
 		mDeviation = deviation;
 
-		IDrawerProxy proxy = createDrawerProxy();
-		proxy.setPosition(0);
+		freezeContent();
 
 		updateDrawerClickable();
 		updateDrawerShadow();
@@ -680,42 +1379,19 @@ public abstract class Drawer implements OnClickListener, OnTouchListener
 
 	/**
 	 * Plays show animation. It slides {@link Drawer} from left to right. If
-	 * drawer is currently moved by touch event, animation will start from
-	 * current position and will be appropriately shortened. If this is first
-	 * time, clickable {@link ImageView} will be correctly positioned and
-	 * visible.
+	 * drawer is currently moved by touch event or by another animation,
+	 * animation will start from current position and will be appropriately
+	 * shortened. If this is first time, clickable {@link ImageView} will be
+	 * correctly positioned and visible.
 	 */
 	protected void showWithAnimation()
 	{
-		final int start = mMoved ? mMovedPosition : 0;
+		final int start = mPosition;
 
 		boolean decelerate = mMoved && !mAllowCloseOnTouch;
 
-		ObjectAnimator anim = ObjectAnimator.ofInt(createDrawerProxy(), "position", start, getTargetPosition());
-		anim.setInterpolator(decelerate ? new DecelerateInterpolator() : new AccelerateInterpolator());
-		anim.setDuration(calculateDuration(true));
-		anim.addListener(new AnimatorListener()
-		{
-			public void onAnimationStart(Animator animation)
-			{
-			}
-			
-			public void onAnimationRepeat(Animator animation)
-			{
-			}
-			
-			public void onAnimationEnd(Animator animation)
-			{
-				finishShowing();
-			}
-			
-			public void onAnimationCancel(Animator animation)
-			{
-				finishShowing();
-			}
-		});
-
-		anim.start();
+		animatePosition(start, getTargetPosition(), decelerate ? DECELERATE_INTERPOLATOR : ACCELERATE_INTERPOLATOR,
+				calculateDuration(true), true);
 
 		if (mMoved)
 		{
@@ -726,14 +1402,152 @@ public abstract class Drawer implements OnClickListener, OnTouchListener
 		updateDrawerShadow();
 	}
 
+	/**
+	 * Marks beginning of animated transition.
+	 */
+	private void startTransition()
+	{
+		freezeContent();
+		trackTransitionStart();
+	}
+
+	/**
+	 * Stops running transition, e.g. when {@link Drawer} is grabbed by touch
+	 * in the middle of animation. {@link Drawer} stays where it is.
+	 */
+	protected void stopTransition()
+	{
+		mTransitionDriver.cancel();
+	}
+
+	/**
+	 * Thaws content frozen by {@link #freezeContent()}, unless a transition is
+	 * still running. Deferred layout requests and invalidations are applied
+	 * at once.
+	 */
+	protected void thawContent()
+	{
+		if (!mTransitionDriver.isRunning())
+		{
+			setContentFrozen(false);
+		}
+	}
+
+	/**
+	 * Runs pending frame of tracked drag right away, instead of waiting for
+	 * the frame source. Lets tests drive drags frame by frame.
+	 * 
+	 * @param frameTime Time of frame in nanoseconds
+	 */
+	void doDragFrame(long frameTime)
+	{
+		if (!mDragTracked)
+		{
+			return;
+		}
+
+		mDragFrameSource.remove();
+		mDragFrameCallback.onFrame(frameTime);
+	}
+
+	/**
+	 * Starts tracking drag in {@link AdaptiveQuality} as transition, from
+	 * first move until {@link #trackDragEnd()}. Called on every move of
+	 * touch, before new position is applied. Frames of drag are taken from
+	 * {@link FrameSource} rather than from touch events, so intervals between
+	 * actual frames are measured and finger resting on the screen is not
+	 * counted as missed frames.
+	 */
+	protected void trackDragFrame()
+	{
+		if (mAdaptiveQuality == null || mDragTracked)
+		{
+			return;
+		}
+
+		if (mDragFrameSource == null)
+		{
+			mDragFrameSource = FrameSource.create(mDragFrameCallback);
+		}
+
+		mDragTracked = true;
+		mAdaptiveQuality.onTransitionStart();
+		mDragFrameSource.post();
+	}
+
+	/**
+	 * Marks end of drag tracked by {@link #trackDragFrame()} and stops its
+	 * frames. Called when touch is released or canceled, before any
+	 * animation is started.
+	 */
+	protected void trackDragEnd()
+	{
+		if (!mDragTracked)
+		{
+			return;
+		}
+
+		mDragFrameSource.remove();
+		mDragTracked = false;
+		trackTransitionEnd();
+	}
+
+	/**
+	 * Records frame of transition in {@link AdaptiveQuality}. Called before
+	 * position of the frame is applied, so effect disabled by the frame is
+	 * not applied to it anymore.
+	 * 
+	 * @param frameTime Time of frame in nanoseconds
+	 */
+	void trackFrame(long frameTime)
+	{
+		if (mAdaptiveQuality != null)
+		{
+			mAdaptiveQuality.onFrame(frameTime, getRequestedEffects());
+		}
+	}
+
+	/**
+	 * Marks end of transition in {@link AdaptiveQuality}.
+	 */
+	void trackTransitionEnd()
+	{
+		if (mAdaptiveQuality != null)
+		{
+			mAdaptiveQuality.onTransitionEnd(getRequestedEffects());
+		}
+	}
+
+	/**
+	 * Marks beginning of transition in {@link AdaptiveQuality}.
+	 */
+	void trackTransitionStart()
+	{
+		if (mAdaptiveQuality != null)
+		{
+			mAdaptiveQuality.onTransitionStart();
+		}
+	}
+
 	void finishShowing()
 	{
+		setContentFrozen(false);
+
 		if (mDrawerListener != null)
 		{
 			mDrawerListener.onDrawerAfterShow();
 		}
 	}
 
+	/**
+	 * Shows clickable {@link ImageView} and shadow.
+	 */
+	void showOverlay()
+	{
+		updateDrawerClickable();
+		updateDrawerShadow();
+	}
+
 	/**
 	 * Updates clickable {@link ImageView} - position and visibility.
 	 */
@@ -756,7 +1570,12 @@ public abstract class Drawer implements OnClickListener, OnTouchListener
 	private void updateDrawerShadow()
 	{
 		View shadow = ((LinearLayout) mDrawerShadow).getChildAt(0);
-		shadow.setLayoutParams(new LinearLayout.LayoutParams(mShadowWidth, FILL_PARENT));
+		ViewGroup.LayoutParams shadowParams = shadow.getLayoutParams();
+		if (shadowParams.width != mShadowWidth)
+		{
+			shadowParams.width = mShadowWidth;
+			shadow.setLayoutParams(shadowParams);
+		}
 
 		FrameLayout.LayoutParams lp = (FrameLayout.LayoutParams) mDrawerShadow.getLayoutParams();
 		lp.gravity = Gravity.FILL_VERTICAL;
@@ -776,4 +1595,49 @@ public abstract class Drawer implements OnClickListener, OnTouchListener
 		mDrawer.findViewById(R.id.drawer_content).getLayoutParams().width = getDrawerWidth();
 	}
 
+	/**
+	 * Moves the first child of android.R.id.content, i.e. view set with
+	 * setContentView(), into {@link TransitionFreezeLayout} so layout of
+	 * {@link Activity} content can be frozen during transitions. Other
+	 * children are left where they are, as they may belong to fragments,
+	 * which FragmentManager removes from android.R.id.content directly.
+	 * Container created by previous initialization is reused. Container
+	 * dropped by later setContentView() is detected on next freeze and the new
+	 * content is wrapped again.
+	 * 
+	 * @return Container or null if content view cannot be found
+	 */
+	private TransitionFreezeLayout wrapActivityContent()
+	{
+		ViewGroup content = (ViewGroup) mDrawerActivity.findViewById(android.R.id.content);
+		if (content == null)
+		{
+			return null;
+		}
+
+		for (int i = 0; i < content.getChildCount(); i++)
+		{
+			if (content.getChildAt(i) instanceof TransitionFreezeLayout)
+			{
+				return (TransitionFreezeLayout) content.getChildAt(i);
+			}
+		}
+
+		View child = content.getChildAt(0);
+		if (child == null)
+		{
+			return null;
+		}
+
+		TransitionFreezeLayout freeze = new TransitionFreezeLayout(mContext);
+		ViewGroup.LayoutParams params = child.getLayoutParams();
+
+		content.removeViewAt(0);
+		freeze.addView(child, params);
+
+		content.addView(freeze, 0, new FrameLayout.LayoutParams(FILL_PARENT, FILL_PARENT));
+
+		return freeze;
+	}
+
 }
@@ -0,0 +1,352 @@
+package pl.verdigo.libraries.drawer;
+
+import static android.view.ViewGroup.LayoutParams.FILL_PARENT;
+import android.app.Activity;
+import android.content.Context;
+import android.content.res.Configuration;
+import android.os.Bundle;
+import android.view.animation.AccelerateDecelerateInterpolator;
+import android.view.animation.Interpolator;
+import android.widget.FrameLayout;
+
+/**
+ * Coordinates left and right {@link Drawer} of one {@link Activity}. Both
+ * drawers inject their views into a single host view and share one
+ * {@link TransitionDriver}, so only one of them can be visible at a time.
+ * Showing one drawer while the other one is visible runs a single transition
+ * which closes the visible drawer and opens the requested one.
+ */
+public class DrawerManager
+{
+
+	private static final Interpolator SWITCH_INTERPOLATOR = new AccelerateDecelerateInterpolator();
+
+	private FrameLayout mHostView;
+
+	private Drawer mLeftDrawer;
+
+	private Drawer mRightDrawer;
+
+	private final TransitionDriver.Client mSwitchClient = new TransitionDriver.Client()
+	{
+		public void onTransitionFrame(float fraction, long frameTime)
+		{
+			if (fraction < mSwitchSplit)
+			{
+				mSwitchFrom.trackFrame(frameTime);
+				mSwitchFrom.setPosition(Math.round(mSwitchStart * (1f - fraction / mSwitchSplit)));
+				return;
+			}
+
+			crossSwitch();
+
+			mSwitchTo.trackFrame(frameTime);
+
+			float ratio = mSwitchSplit < 1f ? (fraction - mSwitchSplit) / (1f - mSwitchSplit) : 1f;
+			mSwitchTo.setPosition(Math.round(mSwitchTarget * ratio));
+		}
+
+		public void onTransitionEnd(boolean canceled)
+		{
+			mSwitchTo.trackTransitionEnd();
+
+			if (canceled)
+			{
+				finishCanceledSwitch();
+				return;
+			}
+
+			crossSwitch();
+
+			mSwitchTo.setPosition(mSwitchTarget);
+			mSwitchTo.finishShowing();
+		}
+	};
+
+	private boolean mSwitchCrossed;
+
+	private Drawer mSwitchFrom;
+
+	private float mSwitchSplit;
+
+	private int mSwitchStart;
+
+	private int mSwitchTarget;
+
+	private Drawer mSwitchTo;
+
+	private final TransitionDriver mTransitionDriver = new TransitionDriver();
+
+	/**
+	 * Creates {@link DrawerManager} object with left and right {@link Drawer}.
+	 * 
+	 * @param context Context
+	 * @param leftLayout Layout to inflate into left {@link Drawer}
+	 * @param rightLayout Layout to inflate into right {@link Drawer}
+	 */
+	public DrawerManager(Context context, int leftLayout, int rightLayout)
+	{
+		mLeftDrawer = Drawer.createLeftDrawer(context, leftLayout);
+		mLeftDrawer.setDrawerManager(this);
+
+		mRightDrawer = Drawer.createRightDrawer(context, rightLayout);
+		mRightDrawer.setDrawerManager(this);
+	}
+
+	/**
+	 * Cancel (dismiss) visible {@link Drawer}.
+	 */
+	public void cancel()
+	{
+		mLeftDrawer.cancel();
+		mRightDrawer.cancel();
+	}
+
+	/**
+	 * Hands visibility over from the closed {@link Drawer} to the opened one:
+	 * the closed one is removed and clickable area and shadow of the opened
+	 * one are shown. Happens once per switch.
+	 */
+	private void crossSwitch()
+	{
+		if (mSwitchCrossed)
+		{
+			return;
+		}
+
+		mSwitchCrossed = true;
+
+		mSwitchFrom.removeDrawer();
+		mSwitchTo.showOverlay();
+	}
+
+	/**
+	 * Finishes switch canceled before its end, e.g. by canceling the opened
+	 * {@link Drawer}. Closed {@link Drawer} is removed if it has not been
+	 * yet. Opened one stays where it is and is neither made clickable nor
+	 * reported as shown, the transition which canceled the switch takes over.
+	 */
+	private void finishCanceledSwitch()
+	{
+		if (mSwitchCrossed)
+		{
+			return;
+		}
+
+		mSwitchCrossed = true;
+		mSwitchFrom.removeDrawer();
+	}
+
+	/**
+	 * Returns host view shared by both drawers. It is injected into the decor
+	 * view on first call.
+	 * 
+	 * @param decorView Decor view of {@link Activity}
+	 * @return Host view
+	 */
+	FrameLayout getHostView(FrameLayout decorView)
+	{
+		if (mHostView == null)
+		{
+			mHostView = new FrameLayout(decorView.getContext());
+			decorView.addView(mHostView, new FrameLayout.LayoutParams(FILL_PARENT, FILL_PARENT));
+		}
+
+		return mHostView;
+	}
+
+	/**
+	 * Returns left {@link Drawer}, e.g. to configure it.
+	 * 
+	 * @return Drawer
+	 */
+	public Drawer getLeftDrawer()
+	{
+		return mLeftDrawer;
+	}
+
+	private Drawer getOtherDrawer(Drawer drawer)
+	{
+		return drawer == mLeftDrawer ? mRightDrawer : mLeftDrawer;
+	}
+
+	/**
+	 * Returns right {@link Drawer}, e.g. to configure it.
+	 * 
+	 * @return Drawer
+	 */
+	public Drawer getRightDrawer()
+	{
+		return mRightDrawer;
+	}
+
+	TransitionDriver getTransitionDriver()
+	{
+		return mTransitionDriver;
+	}
+
+	/**
+	 * Returns currently visible {@link Drawer}.
+	 * 
+	 * @return Drawer or null
+	 */
+	public Drawer getVisibleDrawer()
+	{
+		if (mLeftDrawer.isVisible())
+		{
+			return mLeftDrawer;
+		}
+		else if (mRightDrawer.isVisible())
+		{
+			return mRightDrawer;
+		}
+
+		return null;
+	}
+
+	/**
+	 * Initialize both drawers. See {@link Drawer#init()}.
+	 */
+	public void init()
+	{
+		mLeftDrawer.init();
+		mRightDrawer.init();
+	}
+
+	/**
+	 * Initialize both drawers lazily. See {@link Drawer#initLazily()}.
+	 */
+	public void initLazily()
+	{
+		mLeftDrawer.initLazily();
+		mRightDrawer.initLazily();
+	}
+
+	/**
+	 * Is switch from or to given {@link Drawer} running.
+	 * 
+	 * @param drawer Drawer
+	 * @return Boolean
+	 */
+	boolean isSwitching(Drawer drawer)
+	{
+		return mTransitionDriver.isRunning(mSwitchClient) && (mSwitchFrom == drawer || mSwitchTo == drawer);
+	}
+
+	boolean isOtherVisible(Drawer drawer)
+	{
+		return getOtherDrawer(drawer).isVisible();
+	}
+
+	/**
+	 * Is any {@link Drawer} visible.
+	 * 
+	 * @return Boolean
+	 */
+	public boolean isVisible()
+	{
+		return getVisibleDrawer() != null;
+	}
+
+	/**
+	 * Handles configuration change. See
+	 * {@link Drawer#onConfigurationChanged(Configuration)}.
+	 * 
+	 * @param newConfig New configuration
+	 */
+	public void onConfigurationChanged(Configuration newConfig)
+	{
+		mLeftDrawer.onConfigurationChanged(newConfig);
+		mRightDrawer.onConfigurationChanged(newConfig);
+	}
+
+	/**
+	 * Restores state of both drawers. See
+	 * {@link Drawer#onRestoreInstanceState(Bundle)}.
+	 * 
+	 * @param savedInstanceState Bundle passed to {@link Activity}
+	 */
+	public void onRestoreInstanceState(Bundle savedInstanceState)
+	{
+		mLeftDrawer.onRestoreInstanceState(savedInstanceState);
+		mRightDrawer.onRestoreInstanceState(savedInstanceState);
+	}
+
+	/**
+	 * Saves state of both drawers. See
+	 * {@link Drawer#onSaveInstanceState(Bundle)}.
+	 * 
+	 * @param outState Bundle in which to place saved state
+	 */
+	public void onSaveInstanceState(Bundle outState)
+	{
+		mLeftDrawer.onSaveInstanceState(outState);
+		mRightDrawer.onSaveInstanceState(outState);
+	}
+
+	/**
+	 * Shows left {@link Drawer}. If right one is visible, it is closed within
+	 * the same transition.
+	 */
+	public void showLeft()
+	{
+		mLeftDrawer.show();
+	}
+
+	/**
+	 * Shows right {@link Drawer}. If left one is visible, it is closed within
+	 * the same transition.
+	 */
+	public void showRight()
+	{
+		mRightDrawer.show();
+	}
+
+	/**
+	 * Switches from visible {@link Drawer} to requested one. Visible drawer is
+	 * closed during first part of transition and requested one is opened
+	 * during the second part, each part takes time proportional to its own
+	 * animation duration.
+	 * 
+	 * @param drawer Drawer to show
+	 * @return false if other {@link Drawer} was not visible and requested one
+	 *         should be shown on its own
+	 */
+	boolean switchTo(Drawer drawer)
+	{
+		Drawer from = getOtherDrawer(drawer);
+		if (!from.isVisible())
+		{
+			return false;
+		}
+
+		if (!drawer.isAnimationEnabled())
+		{
+			from.cancelWithoutAnimation();
+			return false;
+		}
+
+		mTransitionDriver.cancel();
+
+		mSwitchFrom = from;
+		mSwitchTo = drawer;
+		mSwitchStart = from.getCurrentPosition();
+		mSwitchCrossed = false;
+
+		long fromDuration = from.calculateDuration(false);
+
+		from.prepareCancel();
+		drawer.prepareShow();
+
+		mSwitchTarget = drawer.getTargetPosition();
+
+		long duration = fromDuration + drawer.calculateDuration(true);
+		mSwitchSplit = duration > 0 ? (float) fromDuration / duration : 0f;
+
+		drawer.trackTransitionStart();
+		mTransitionDriver.start(mSwitchClient, SWITCH_INTERPOLATOR, duration);
+
+		return true;
+	}
+
+}
@@ -0,0 +1,137 @@
+package pl.verdigo.libraries.drawer;
+
+import android.annotation.TargetApi;
+import android.os.Build;
+import android.os.Handler;
+import android.view.Choreographer;
+import android.view.Choreographer.FrameCallback;
+
+/**
+ * Schedules frames for {@link TransitionDriver} and for drags tracked by
+ * {@link Drawer}. On Android 4.1 (API level 16) and above frames are driven
+ * by {@link Choreographer}, in step with vsync, whatever the refresh rate is.
+ * On lower versions frames are driven by {@link Handler} with fixed delay.
+ * Every post schedules exactly one frame, callback has to post again to
+ * receive the next one. Nothing is allocated per frame.
+ */
+abstract class FrameSource
+{
+
+	/**
+	 * Receives frames.
+	 */
+	interface Callback
+	{
+
+		/**
+		 * Called once per posted frame.
+		 * 
+		 * @param frameTime Time of frame in nanoseconds, in
+		 *            {@link System#nanoTime()} time base. Vsync time when
+		 *            frames are driven by {@link Choreographer}.
+		 */
+		void onFrame(long frameTime);
+
+	}
+
+	/**
+	 * Delay between frames on versions without {@link Choreographer}, the
+	 * same as default frame delay of ValueAnimator.
+	 */
+	private static final long FALLBACK_FRAME_DELAY = 10;
+
+	/**
+	 * Creates frame source appropriate for current version.
+	 * 
+	 * @param callback Callback receiving frames
+	 * @return FrameSource object
+	 */
+	static FrameSource create(Callback callback)
+	{
+		if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN)
+		{
+			return new ChoreographerFrameSource(callback);
+		}
+
+		return new HandlerFrameSource(callback);
+	}
+
+	/**
+	 * Schedules next frame.
+	 */
+	abstract void post();
+
+	/**
+	 * Removes scheduled frame, if any.
+	 */
+	abstract void remove();
+
+	/**
+	 * Frame source based on {@link Choreographer}, frames are in step with
+	 * vsync.
+	 */
+	@TargetApi(Build.VERSION_CODES.JELLY_BEAN)
+	private static class ChoreographerFrameSource extends FrameSource implements FrameCallback
+	{
+
+		private final Callback mCallback;
+
+		private final Choreographer mChoreographer = Choreographer.getInstance();
+
+		ChoreographerFrameSource(Callback callback)
+		{
+			mCallback = callback;
+		}
+
+		public void doFrame(long frameTimeNanos)
+		{
+			mCallback.onFrame(frameTimeNanos);
+		}
+
+		void post()
+		{
+			mChoreographer.postFrameCallback(this);
+		}
+
+		void remove()
+		{
+			mChoreographer.removeFrameCallback(this);
+		}
+
+	}
+
+	/**
+	 * Frame source based on {@link Handler} with fixed delay, used on versions
+	 * without {@link Choreographer}. Messages are taken from the pool, so it
+	 * does not allocate either.
+	 */
+	private static class HandlerFrameSource extends FrameSource implements Runnable
+	{
+
+		private final Callback mCallback;
+
+		private final Handler mHandler = new Handler();
+
+		HandlerFrameSource(Callback callback)
+		{
+			mCallback = callback;
+		}
+
+		void post()
+		{
+			mHandler.postDelayed(this, FALLBACK_FRAME_DELAY);
+		}
+
+		void remove()
+		{
+			mHandler.removeCallbacks(this);
+		}
+
+		public void run()
+		{
+			mCallback.onFrame(System.nanoTime());
+		}
+
+	}
+
+}
@@ -0,0 +1,211 @@
+package pl.verdigo.libraries.drawer;
+
+import android.view.Choreographer;
+import android.view.animation.Interpolator;
+
+/**
+ * Drives transitions of {@link Drawer}. Only one transition runs at a time,
+ * starting a new one cancels the running one. Frames are scheduled by
+ * {@link FrameSource}, so on Android 4.1 (API level 16) and above the client
+ * is called exactly once per display refresh, in step with vsync. The same
+ * objects are reused for all transitions and clients receive interpolated
+ * fraction, so no objects are allocated per frame. Drawers coordinated by {@link DrawerManager} share one
+ * driver, so their transitions never compete.
+ */
+class TransitionDriver implements FrameSource.Callback
+{
+
+	/**
+	 * Receives frames of transition.
+	 */
+	interface Client
+	{
+
+		/**
+		 * Called once per frame.
+		 * 
+		 * @param fraction Interpolated fraction of transition
+		 * @param frameTime Time of frame in nanoseconds, in
+		 *            {@link System#nanoTime()} time base. Vsync time when
+		 *            frames are driven by {@link Choreographer}.
+		 */
+		void onTransitionFrame(float fraction, long frameTime);
+
+		/**
+		 * Called when transition has ended or has been canceled.
+		 * 
+		 * @param canceled Whether transition has been canceled
+		 */
+		void onTransitionEnd(boolean canceled);
+
+	}
+
+	private Client mClient;
+
+	private long mDuration;
+
+	private FrameSource mFrameSource;
+
+	private Interpolator mInterpolator;
+
+	private long mStartTime;
+
+	private int mTransition = 0;
+
+	/**
+	 * Cancels running transition, if any.
+	 */
+	void cancel()
+	{
+		if (mClient == null)
+		{
+			return;
+		}
+
+		mFrameSource.remove();
+		finish(true);
+	}
+
+	/**
+	 * Runs next frame of running transition right away, instead of waiting
+	 * for the frame source. Lets tests drive transitions frame by frame.
+	 * 
+	 * @param frameTime Time of frame in nanoseconds
+	 */
+	void doFrame(long frameTime)
+	{
+		if (mClient == null)
+		{
+			return;
+		}
+
+		mFrameSource.remove();
+		onFrame(frameTime);
+	}
+
+	/**
+	 * Ends running transition right away, as if its duration has elapsed.
+	 * Client receives the last frame and is notified that transition has
+	 * ended, not canceled.
+	 */
+	void end()
+	{
+		if (mClient == null)
+		{
+			return;
+		}
+
+		mFrameSource.remove();
+
+		if (mStartTime < 0)
+		{
+			mStartTime = System.nanoTime();
+		}
+
+		onFrame(mStartTime + mDuration * 1000000L);
+	}
+
+	/**
+	 * Ends transition and notifies its client.
+	 * 
+	 * @param canceled Whether transition has been canceled
+	 */
+	private void finish(boolean canceled)
+	{
+		Client client = mClient;
+		mClient = null;
+
+		if (client != null)
+		{
+			client.onTransitionEnd(canceled);
+		}
+	}
+
+	/**
+	 * Is any transition running.
+	 * 
+	 * @return Boolean
+	 */
+	boolean isRunning()
+	{
+		return mClient != null;
+	}
+
+	/**
+	 * Is transition of given client running.
+	 * 
+	 * @param client Client
+	 * @return Boolean
+	 */
+	boolean isRunning(Client client)
+	{
+		return mClient == client;
+	}
+
+	/**
+	 * Handles frame of running transition. Transition starts at its first
+	 * frame and fraction is calculated from frame time, so it is not affected
+	 * by delayed frames.
+	 * 
+	 * @param frameTime Time of frame in nanoseconds
+	 */
+	public void onFrame(long frameTime)
+	{
+		Client client = mClient;
+		if (client == null)
+		{
+			return;
+		}
+
+		if (mStartTime < 0)
+		{
+			mStartTime = frameTime;
+		}
+
+		long duration = mDuration * 1000000L;
+		float fraction = duration > 0 ? Math.min(1f, (float) (frameTime - mStartTime) / duration) : 1f;
+
+		int transition = mTransition;
+		client.onTransitionFrame(mInterpolator.getInterpolation(fraction), frameTime);
+
+		if (mClient == null || mTransition != transition)
+		{
+			return;
+		}
+
+		if (fraction < 1f)
+		{
+			mFrameSource.post();
+		}
+		else
+		{
+			finish(false);
+		}
+	}
+
+	/**
+	 * Starts transition. Running transition is canceled first.
+	 * 
+	 * @param client Client receiving frames
+	 * @param interpolator Interpolator
+	 * @param duration Duration in milliseconds
+	 */
+	void start(Client client, Interpolator interpolator, long duration)
+	{
+		cancel();
+
+		if (mFrameSource == null)
+		{
+			mFrameSource = FrameSource.create(this);
+		}
+
+		mClient = client;
+		mInterpolator = interpolator;
+		mDuration = duration;
+		mStartTime = -1;
+		mTransition++;
+
+		mFrameSource.post();
+	}
+
+}
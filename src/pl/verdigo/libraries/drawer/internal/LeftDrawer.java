@@ -11,8 +11,6 @@ import com.actionbarsherlock.internal.nineoldandroids.view.animation.AnimatorPro
 public class LeftDrawer extends Drawer
 {
 
-	private DrawerProxy mDrawerProxy;
-
 	public LeftDrawer(Context context, int layout)
 	{
 		super(context, layout);
@@ -35,17 +33,14 @@ public class LeftDrawer extends Drawer
 	 */
 	protected IDrawerProxy createDrawerProxy()
 	{
-		if (mDrawerProxy == null)
-		{
-			mDrawerProxy = new DrawerProxy(mDrawerActivity, mDrawer, mDrawerShadow, mDrawerContent);
-		}
-
-		return mDrawerProxy;
+		return new DrawerProxy(mDrawerActivity, mDrawer, mDrawerShadow, mDrawerContent);
 	}
 
 	/**
 	 * Handles touch events. If {@link Drawer} is not movable all touch events
-	 * are ignored.
+	 * are ignored. Canceled touch, e.g. forwarded by
+	 * {@link pl.verdigo.libraries.drawer.BezelSwipe}, is handled as release,
+	 * so {@link Drawer} settles and content is thawed.
 	 * 
 	 * @param view Touched view
 	 * @param event Event
@@ -58,8 +53,15 @@ public class LeftDrawer extends Drawer
 		}
 
 		int drawerWidth = getDrawerWidth();
+		boolean released = event.getAction() == MotionEvent.ACTION_UP
+				|| event.getAction() == MotionEvent.ACTION_CANCEL;
 
-		if (event.getAction() == MotionEvent.ACTION_UP && isAllowCloseOnTouch())
+		if (released)
+		{
+			trackDragEnd();
+		}
+
+		if (released && isAllowCloseOnTouch())
 		{
 			int border = drawerWidth - (drawerWidth / 3);
 
@@ -81,8 +83,7 @@ public class LeftDrawer extends Drawer
 			}
 			else if (!isAnimationEnabled())
 			{
-				IDrawerProxy proxy = createDrawerProxy();
-				proxy.setPosition(drawerWidth);
+				setPosition(getTargetPosition());
 			}
 
 			mDeviation = 0;
@@ -90,9 +91,11 @@ public class LeftDrawer extends Drawer
 			mMoved = false;
 			mMovedPosition = 0;
 
+			thawContent();
+
 			return true;
 		}
-		if (event.getAction() == MotionEvent.ACTION_UP && !isAllowCloseOnTouch())
+		if (released && !isAllowCloseOnTouch())
 		{
 			mMovedBeyondMargin = false;
 			if (isAnimationEnabled())
@@ -101,18 +104,19 @@ public class LeftDrawer extends Drawer
 			}
 			else
 			{
-				IDrawerProxy proxy = createDrawerProxy();
-				proxy.setPosition(drawerWidth);
+				setPosition(getTargetPosition());
 			}
 
 			mDeviation = 0;
 			mMoved = false;
 
+			thawContent();
+
 			return true;
 		}
 		else if (event.getAction() == MotionEvent.ACTION_DOWN)
 		{
-			mDeviation = Math.round(event.getRawX()) - getDrawerWidth();
+			mDeviation = Math.round(event.getRawX()) - getCurrentPosition();
 		}
 		else if (event.getAction() == MotionEvent.ACTION_MOVE)
 		{
@@ -133,8 +137,11 @@ public class LeftDrawer extends Drawer
 				mMovedBeyondMargin = true;
 			}
 
-			IDrawerProxy proxy = createDrawerProxy();
-			proxy.setPosition(mMovedPosition);
+			stopTransition();
+			trackDragFrame();
+			freezeContent();
+
+			setPosition(mMovedPosition);
 
 			return true;
 		}
@@ -152,6 +159,8 @@ public class LeftDrawer extends Drawer
 
 		private int mOriginalWidth;
 
+		private boolean mRotated = false;
+
 		private View mView;
 		
 		private View mViewAlpha;
@@ -183,7 +192,7 @@ public class LeftDrawer extends Drawer
 
 		public void setAlpha(int position)
 		{
-			float value = (Float.valueOf(position) / Float.valueOf(mDrawerWidth)) * 0.7f + 0.3f;
+			float value = ((float) position / (float) mDrawerWidth) * 0.7f + 0.3f;
 			mViewAlphaProxy.setAlpha(value);
 		}
 
@@ -196,28 +205,65 @@ public class LeftDrawer extends Drawer
 			setWidth(mViewShadow, position);
 			setWidth(mViewWidth, position);
 
-			if ((mMoveDrawer || mScaleDrawer) && !mTransform3dDrawer)
+			boolean transform3d = isTransform3dActive();
+			boolean scale = isScaleActive() && !transform3d;
+
+			if ((isMoveActive() || scale) && !transform3d)
 			{
 				int maxLeft = mDrawerWidth / DRAWER_CONTENT_MOVE_PROPORTION;
-				int negativePaddingLeft = -1 * (int) (maxLeft - (Float.valueOf(position) / DRAWER_CONTENT_MOVE_PROPORTION));
+				int negativePaddingLeft = -1 * (int) (maxLeft - ((float) position / DRAWER_CONTENT_MOVE_PROPORTION));
 
 				setLeftPadding(mViewWidth, negativePaddingLeft);
 			}
+			else if (!transform3d)
+			{
+				setLeftPadding(mViewWidth, 0);
+			}
 
-			if (mFadeDrawer)
+			if (isFadeActive())
 			{
 				setAlpha(position);
 			}
+			else
+			{
+				mViewAlphaProxy.setAlpha(1f);
+			}
 
-			if (mScaleDrawer && !mTransform3dDrawer)
+			if (scale)
 			{
 				setScale(position);
 			}
 
-			if (mTransform3dDrawer)
+			if (transform3d)
 			{
 				setTransform3d(position);
 			}
+			else
+			{
+				resetTransform3d(scale);
+			}
+		}
+
+		/**
+		 * Reverts 3d transformation, e.g. when effect was disabled by adaptive
+		 * quality in the middle of transition.
+		 * 
+		 * @param scale Whether scale is still applied by other effect
+		 */
+		@TargetApi(11)
+		private void resetTransform3d(boolean scale)
+		{
+			if (!scale)
+			{
+				mViewAlphaProxy.setScaleX(1f);
+				mViewAlphaProxy.setScaleY(1f);
+			}
+
+			if (mRotated)
+			{
+				mViewAlpha.setRotationY(0);
+				mRotated = false;
+			}
 		}
 
 		private void setLeftPadding(View view, int left)
@@ -227,7 +273,7 @@ public class LeftDrawer extends Drawer
 
 		private void setScale(int position)
 		{
-			float scale = (Float.valueOf(position) / Float.valueOf(mDrawerWidth)) * 0.2f + 0.8f;
+			float scale = ((float) position / (float) mDrawerWidth) * 0.2f + 0.8f;
 			mViewAlphaProxy.setScaleX(scale);
 			mViewAlphaProxy.setScaleY(scale);
 		}
@@ -236,15 +282,16 @@ public class LeftDrawer extends Drawer
 		private void setTransform3d(int position)
 		{
 			int maxLeft = Math.round(mDrawerWidth * 0.9f);
-			int negativePaddingLeft = -1 * (int) (maxLeft - (Float.valueOf(position) * 0.9f));
+			int negativePaddingLeft = -1 * (int) (maxLeft - ((float) position * 0.9f));
 			setLeftPadding(mViewWidth, negativePaddingLeft);
 
-			float scale = (Float.valueOf(position) / Float.valueOf(mDrawerWidth)) * 0.3f + 0.7f;
+			float scale = ((float) position / (float) mDrawerWidth) * 0.3f + 0.7f;
 			mViewAlphaProxy.setScaleX(scale);
 			mViewAlphaProxy.setScaleY(scale);
 
-			float rotate = (Float.valueOf(position) / Float.valueOf(mDrawerWidth)) * 0.9f + 0.1f;
+			float rotate = ((float) position / (float) mDrawerWidth) * 0.9f + 0.1f;
 			mViewAlpha.setRotationY(-45 + (rotate * 45));
+			mRotated = true;
 		}
 
 		private void setWidth(View view, int width)
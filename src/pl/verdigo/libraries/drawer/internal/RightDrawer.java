@@ -11,8 +11,6 @@ import com.actionbarsherlock.internal.nineoldandroids.view.animation.AnimatorPro
 public class RightDrawer extends Drawer
 {
 
-	private DrawerProxy mDrawerProxy;
-
 	public RightDrawer(Context context, int layout)
 	{
 		super(context, layout);
@@ -35,17 +33,14 @@ public class RightDrawer extends Drawer
 	 */
 	protected IDrawerProxy createDrawerProxy()
 	{
-		if (mDrawerProxy == null)
-		{
-			mDrawerProxy = new DrawerProxy(mDrawerActivity, mDrawer, mDrawerShadow, mDrawerContent);
-		}
-
-		return mDrawerProxy;
+		return new DrawerProxy(mDrawerActivity, mDrawer, mDrawerShadow, mDrawerContent);
 	}
 
 	/**
 	 * Handles touch events. If {@link Drawer} is not movable all touch events
-	 * are ignored.
+	 * are ignored. Canceled touch, e.g. forwarded by
+	 * {@link pl.verdigo.libraries.drawer.BezelSwipe}, is handled as release,
+	 * so {@link Drawer} settles and content is thawed.
 	 * 
 	 * @param view Touched view
 	 * @param event Event
@@ -58,8 +53,15 @@ public class RightDrawer extends Drawer
 		}
 
 		int drawerWidth = getDrawerWidth();
+		boolean released = event.getAction() == MotionEvent.ACTION_UP
+				|| event.getAction() == MotionEvent.ACTION_CANCEL;
+
+		if (released)
+		{
+			trackDragEnd();
+		}
 
-		if (event.getAction() == MotionEvent.ACTION_UP && isAllowCloseOnTouch())
+		if (released && isAllowCloseOnTouch())
 		{
 			int border = drawerWidth - (drawerWidth / 3);
 
@@ -81,8 +83,7 @@ public class RightDrawer extends Drawer
 			}
 			else if (!isAnimationEnabled())
 			{
-				IDrawerProxy proxy = createDrawerProxy();
-				proxy.setPosition(drawerWidth);
+				setPosition(getTargetPosition());
 			}
 
 			mDeviation = 0;
@@ -90,9 +91,11 @@ public class RightDrawer extends Drawer
 			mMoved = false;
 			mMovedPosition = 0;
 
+			thawContent();
+
 			return true;
 		}
-		if (event.getAction() == MotionEvent.ACTION_UP && !isAllowCloseOnTouch())
+		if (released && !isAllowCloseOnTouch())
 		{
 			mMovedBeyondMargin = false;
 			if (isAnimationEnabled())
@@ -101,18 +104,19 @@ public class RightDrawer extends Drawer
 			}
 			else
 			{
-				IDrawerProxy proxy = createDrawerProxy();
-				proxy.setPosition(drawerWidth);
+				setPosition(getTargetPosition());
 			}
 
 			mDeviation = 0;
 			mMoved = false;
 
+			thawContent();
+
 			return true;
 		}
 		else if (event.getAction() == MotionEvent.ACTION_DOWN)
 		{
-			mDeviation = Math.round(event.getRawX()) + getDrawerWidth();
+			mDeviation = Math.round(event.getRawX()) - getCurrentPosition();
 		}
 		else if (event.getAction() == MotionEvent.ACTION_MOVE)
 		{
@@ -133,8 +137,11 @@ public class RightDrawer extends Drawer
 				mMovedBeyondMargin = true;
 			}
 
-			IDrawerProxy proxy = createDrawerProxy();
-			proxy.setPosition(mMovedPosition);
+			stopTransition();
+			trackDragFrame();
+			freezeContent();
+
+			setPosition(mMovedPosition);
 
 			return true;
 		}
@@ -183,7 +190,7 @@ public class RightDrawer extends Drawer
 
 		public void setAlpha(int position)
 		{
-			float value = (Float.valueOf(0 - position) / Float.valueOf(mDrawerWidth)) * 0.7f + 0.3f;
+			float value = ((float) (0 - position) / (float) mDrawerWidth) * 0.7f + 0.3f;
 			mViewAlphaProxy.setAlpha(value);
 		}
 
@@ -198,8 +205,13 @@ public class RightDrawer extends Drawer
 			setLeftMargin(mViewWidth, mOriginalWidth + position);
 			setWidth(mViewWidth, -1 * position);
 
-			if ((mMoveDrawer || mScaleDrawer) && !mTransform3dDrawer)
+			if ((isMoveActive() || isScaleActive()) && !isTransform3dActive())
 			{
+				if (mViewAlpha.getLayoutParams().width != mDrawerWidth)
+				{
+					setWidth(mViewAlpha, mDrawerWidth);
+				}
+
 				setLeftPadding(mViewAlpha, 0 - (mDrawerWidth + position));
 			}
 			else
@@ -210,10 +222,14 @@ public class RightDrawer extends Drawer
 				setWidth(mViewAlpha, mDrawerWidth + padding);
 			}
 
-			if (mFadeDrawer)
+			if (isFadeActive())
 			{
 				setAlpha(position);
 			}
+			else
+			{
+				mViewAlphaProxy.setAlpha(1f);
+			}
 
 			// if (mScaleDrawer && !mTransform3dDrawer)
 			// {
@@ -0,0 +1,137 @@
+package pl.verdigo.libraries.drawer.internal;
+
+import android.annotation.TargetApi;
+import android.content.Context;
+import android.graphics.Rect;
+import android.os.Build;
+import android.view.View;
+import android.view.ViewParent;
+import android.view.animation.Animation;
+import android.widget.FrameLayout;
+
+/**
+ * Container which can be frozen for the time of Drawer transition. While
+ * frozen, layout requests and invalidations coming from its children are not
+ * propagated up, but remembered and applied in a single pass when container
+ * is thawed. Only the region invalidated while frozen is redrawn then. Size
+ * changes forced by parent are still handled.
+ * Invalidations of views running an {@link Animation} are never deferred, as
+ * the animation would stall. On Android 8.0 (API level 26) and above
+ * hardware accelerated invalidations are reported through
+ * {@link #onDescendantInvalidated(View, View)} with the invalidated view, so
+ * they are recognized there; older versions report only the dirty region.
+ * Freezing can be nested, container is thawed when the last freeze is
+ * released.
+ */
+public class TransitionFreezeLayout extends FrameLayout
+{
+
+	private final Rect mDirty = new Rect();
+
+	private int mFreezeCount = 0;
+
+	private boolean mLayoutPending = false;
+
+	private final Rect mTargetRect = new Rect();
+
+	public TransitionFreezeLayout(Context context)
+	{
+		super(context);
+	}
+
+	/**
+	 * Freezes layout and invalidation of children.
+	 */
+	public void freeze()
+	{
+		mFreezeCount++;
+	}
+
+	@Override
+	public ViewParent invalidateChildInParent(int[] location, Rect dirty)
+	{
+		if (mFreezeCount > 0)
+		{
+			mDirty.union(dirty.left + location[0], dirty.top + location[1], dirty.right + location[0], dirty.bottom
+					+ location[1]);
+			return null;
+		}
+
+		return super.invalidateChildInParent(location, dirty);
+	}
+
+	/**
+	 * Is view running an {@link Animation}.
+	 * 
+	 * @param view View
+	 * @return Boolean
+	 */
+	private static boolean isAnimating(View view)
+	{
+		Animation animation = view.getAnimation();
+
+		return animation != null && !animation.hasEnded();
+	}
+
+	/**
+	 * Is container currently frozen.
+	 * 
+	 * @return Boolean
+	 */
+	public boolean isFrozen()
+	{
+		return mFreezeCount > 0;
+	}
+
+	@TargetApi(Build.VERSION_CODES.O)
+	@Override
+	public void onDescendantInvalidated(View child, View target)
+	{
+		if (mFreezeCount > 0 && !isAnimating(target))
+		{
+			target.getDrawingRect(mTargetRect);
+			offsetDescendantRectToMyCoords(target, mTargetRect);
+			mDirty.union(mTargetRect);
+			return;
+		}
+
+		super.onDescendantInvalidated(child, target);
+	}
+
+	@Override
+	public void requestLayout()
+	{
+		if (mFreezeCount > 0)
+		{
+			mLayoutPending = true;
+			return;
+		}
+
+		super.requestLayout();
+	}
+
+	/**
+	 * Releases one freeze. When the last one is released, deferred layout
+	 * request is applied and region invalidated while frozen is redrawn.
+	 */
+	public void thaw()
+	{
+		if (mFreezeCount == 0 || --mFreezeCount > 0)
+		{
+			return;
+		}
+
+		if (mLayoutPending)
+		{
+			mLayoutPending = false;
+			super.requestLayout();
+		}
+
+		if (!mDirty.isEmpty())
+		{
+			invalidate(mDirty);
+			mDirty.setEmpty();
+		}
+	}
+
+}
@@ -0,0 +1,335 @@
+package pl.verdigo.libraries.drawer;
+
+import java.util.ArrayList;
+import java.util.List;
+import android.view.MotionEvent;
+
+/**
+ * Sequence of synthetic touch events and {@link Drawer} commands replayed by
+ * {@link GestureReplay}. Every step takes one frame. Standard gestures are
+ * created by static factory methods, custom ones can be recorded with
+ * {@link #touchBezel(int, int, int)}, {@link #touchDrawer(int, int, int)},
+ * {@link #show()}, {@link #open()} and {@link #frames(int)}.
+ */
+public class Gesture
+{
+
+	static final int STEP_FRAME = 0;
+
+	static final int STEP_OPEN = 1;
+
+	static final int STEP_SHOW = 2;
+
+	static final int STEP_TOUCH_BEZEL = 3;
+
+	static final int STEP_TOUCH_DRAWER = 4;
+
+	private static final int EDGE_OFFSET = 1;
+
+	private static final int FAST_FLING_FRAMES = 4;
+
+	private static final int MARGIN = 10;
+
+	private static final int PAUSE_FRAMES = 30;
+
+	private static final int SETTLE_FRAMES = 30;
+
+	private static final int SLOW_DRAG_FRAMES = 60;
+
+	private static final int SWIPE_FRAMES = 12;
+
+	private static final int VERTICAL_SCROLL_FRAMES = 20;
+
+	private static final int VERTICAL_SCROLL_STEP = 20;
+
+	private final String mName;
+
+	private final List<Step> mSteps = new ArrayList<Step>();
+
+	/**
+	 * Creates empty {@link Gesture}.
+	 * 
+	 * @param name Name used in reports
+	 */
+	public Gesture(String name)
+	{
+		mName = name;
+	}
+
+	/**
+	 * Opened {@link Drawer} is dragged closed slowly.
+	 * 
+	 * @param drawer Drawer
+	 * @param y Vertical position of touch
+	 * @return Gesture
+	 */
+	public static Gesture slowDrag(Drawer drawer, int y)
+	{
+		int drawerWidth = drawer.getDrawerWidth();
+
+		Gesture gesture = new Gesture("slow drag").open();
+		gesture.drag(drawer, STEP_TOUCH_DRAWER, drawerWidth + MARGIN, MARGIN, y, SLOW_DRAG_FRAMES);
+
+		return gesture.frames(SETTLE_FRAMES);
+	}
+
+	/**
+	 * Opened {@link Drawer} is flung closed within few frames.
+	 * 
+	 * @param drawer Drawer
+	 * @param y Vertical position of touch
+	 * @return Gesture
+	 */
+	public static Gesture fastFling(Drawer drawer, int y)
+	{
+		int drawerWidth = drawer.getDrawerWidth();
+
+		Gesture gesture = new Gesture("fast fling").open();
+		gesture.drag(drawer, STEP_TOUCH_DRAWER, drawerWidth + MARGIN, MARGIN, y, FAST_FLING_FRAMES);
+
+		return gesture.frames(SETTLE_FRAMES);
+	}
+
+	/**
+	 * {@link Drawer} is opened by swiping from the bezel.
+	 * 
+	 * @param drawer Drawer
+	 * @param y Vertical position of touch
+	 * @return Gesture
+	 */
+	public static Gesture edgeSwipe(Drawer drawer, int y)
+	{
+		Gesture gesture = new Gesture("edge swipe");
+		gesture.drag(drawer, STEP_TOUCH_BEZEL, EDGE_OFFSET, drawer.getDrawerWidth(), y, SWIPE_FRAMES);
+
+		return gesture.frames(SETTLE_FRAMES);
+	}
+
+	/**
+	 * Opened {@link Drawer} is dragged half closed, finger rests on the
+	 * screen for a while and then drags it closed. No touch events arrive
+	 * during the pause, but frames go on.
+	 * 
+	 * @param drawer Drawer
+	 * @param y Vertical position of touch
+	 * @return Gesture
+	 */
+	public static Gesture pausedDrag(Drawer drawer, int y)
+	{
+		int from = drawer.getDrawerWidth() + MARGIN;
+		int middle = drawer.getDrawerWidth() / 2;
+
+		Gesture gesture = new Gesture("paused drag").open();
+		gesture.addStep(STEP_TOUCH_DRAWER, MotionEvent.ACTION_DOWN, mirror(drawer, from), y);
+		gesture.move(drawer, STEP_TOUCH_DRAWER, from, middle, y, SWIPE_FRAMES);
+		gesture.frames(PAUSE_FRAMES);
+		gesture.move(drawer, STEP_TOUCH_DRAWER, middle, MARGIN, y, SWIPE_FRAMES);
+		gesture.addStep(STEP_TOUCH_DRAWER, MotionEvent.ACTION_UP, mirror(drawer, MARGIN), y);
+
+		return gesture.frames(SETTLE_FRAMES);
+	}
+
+	/**
+	 * {@link Drawer} is swiped from the bezel, but touch is canceled instead
+	 * of released, e.g. by parent intercepting it. {@link Drawer} should
+	 * settle as if it was released.
+	 * 
+	 * @param drawer Drawer
+	 * @param y Vertical position of touch
+	 * @return Gesture
+	 */
+	public static Gesture canceledSwipe(Drawer drawer, int y)
+	{
+		Gesture gesture = new Gesture("canceled swipe");
+		gesture.drag(drawer, STEP_TOUCH_BEZEL, EDGE_OFFSET, drawer.getDrawerWidth(), y, SWIPE_FRAMES,
+				MotionEvent.ACTION_CANCEL);
+
+		return gesture.frames(SETTLE_FRAMES);
+	}
+
+	/**
+	 * Touch starts at the bezel, but moves vertically. {@link BezelSwipe}
+	 * should reject it and {@link Drawer} should not move at all.
+	 * 
+	 * @param drawer Drawer
+	 * @param y Vertical position of touch
+	 * @return Gesture
+	 */
+	public static Gesture verticalScroll(Drawer drawer, int y)
+	{
+		int x = mirror(drawer, EDGE_OFFSET);
+
+		Gesture gesture = new Gesture("vertical scroll");
+		gesture.touchBezel(MotionEvent.ACTION_DOWN, x, y);
+
+		for (int i = 1; i <= VERTICAL_SCROLL_FRAMES; i++)
+		{
+			gesture.touchBezel(MotionEvent.ACTION_MOVE, x, y + i * VERTICAL_SCROLL_STEP);
+		}
+
+		gesture.touchBezel(MotionEvent.ACTION_UP, x, y + VERTICAL_SCROLL_FRAMES * VERTICAL_SCROLL_STEP);
+
+		return gesture.frames(SETTLE_FRAMES);
+	}
+
+	/**
+	 * Show animation is interrupted by touch after few frames and
+	 * {@link Drawer} is dragged half closed.
+	 * 
+	 * @param drawer Drawer
+	 * @param y Vertical position of touch
+	 * @return Gesture
+	 */
+	public static Gesture interruptedAnimation(Drawer drawer, int y)
+	{
+		int drawerWidth = drawer.getDrawerWidth();
+
+		Gesture gesture = new Gesture("interrupted animation").show().frames(3);
+		gesture.drag(drawer, STEP_TOUCH_DRAWER, drawerWidth + MARGIN, drawerWidth / 2, y, SWIPE_FRAMES);
+
+		return gesture.frames(SETTLE_FRAMES);
+	}
+
+	/**
+	 * Converts offset from the edge of {@link Drawer} into X coordinate.
+	 * Right drawer is mirrored.
+	 */
+	private static int mirror(Drawer drawer, int offset)
+	{
+		return drawer.isRightDrawer() ? drawer.mActivityWidth - 1 - offset : offset;
+	}
+
+	private void drag(Drawer drawer, int type, int from, int to, int y, int frames)
+	{
+		drag(drawer, type, from, to, y, frames, MotionEvent.ACTION_UP);
+	}
+
+	private void drag(Drawer drawer, int type, int from, int to, int y, int frames, int endAction)
+	{
+		addStep(type, MotionEvent.ACTION_DOWN, mirror(drawer, from), y);
+		move(drawer, type, from, to, y, frames);
+		addStep(type, endAction, mirror(drawer, to), y);
+	}
+
+	private void move(Drawer drawer, int type, int from, int to, int y, int frames)
+	{
+		for (int i = 1; i <= frames; i++)
+		{
+			addStep(type, MotionEvent.ACTION_MOVE, mirror(drawer, from + (to - from) * i / frames), y);
+		}
+	}
+
+	private Gesture addStep(int type, int action, int x, int y)
+	{
+		mSteps.add(new Step(type, action, x, y));
+		return this;
+	}
+
+	/**
+	 * Adds frames without any event, e.g. to let animation finish.
+	 * 
+	 * @param count Number of frames
+	 * @return This gesture
+	 */
+	public Gesture frames(int count)
+	{
+		for (int i = 0; i < count; i++)
+		{
+			addStep(STEP_FRAME, 0, 0, 0);
+		}
+
+		return this;
+	}
+
+	String getName()
+	{
+		return mName;
+	}
+
+	List<Step> getSteps()
+	{
+		return mSteps;
+	}
+
+	boolean usesBezel()
+	{
+		for (Step step : mSteps)
+		{
+			if (step.mType == STEP_TOUCH_BEZEL)
+			{
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Opens {@link Drawer} without animation.
+	 * 
+	 * @return This gesture
+	 */
+	public Gesture open()
+	{
+		return addStep(STEP_OPEN, 0, 0, 0);
+	}
+
+	/**
+	 * Opens {@link Drawer} with animation.
+	 * 
+	 * @return This gesture
+	 */
+	public Gesture show()
+	{
+		return addStep(STEP_SHOW, 0, 0, 0);
+	}
+
+	/**
+	 * Adds touch event dispatched through {@link BezelSwipe}.
+	 * 
+	 * @param action MotionEvent action
+	 * @param x X coordinate
+	 * @param y Y coordinate
+	 * @return This gesture
+	 */
+	public Gesture touchBezel(int action, int x, int y)
+	{
+		return addStep(STEP_TOUCH_BEZEL, action, x, y);
+	}
+
+	/**
+	 * Adds touch event dispatched directly to opened {@link Drawer}, as if it
+	 * was delivered to the area outside of it.
+	 * 
+	 * @param action MotionEvent action
+	 * @param x X coordinate
+	 * @param y Y coordinate
+	 * @return This gesture
+	 */
+	public Gesture touchDrawer(int action, int x, int y)
+	{
+		return addStep(STEP_TOUCH_DRAWER, action, x, y);
+	}
+
+	static class Step
+	{
+
+		final int mAction;
+
+		final int mType;
+
+		final int mX;
+
+		final int mY;
+
+		Step(int type, int action, int x, int y)
+		{
+			mType = type;
+			mAction = action;
+			mX = x;
+			mY = y;
+		}
+
+	}
+
+}
@@ -0,0 +1,20 @@
+package pl.verdigo.libraries.drawer;
+
+import android.app.Activity;
+import android.os.Bundle;
+import android.widget.FrameLayout;
+
+/**
+ * Empty {@link Activity} hosting {@link Drawer} under test.
+ */
+public class GestureActivity extends Activity
+{
+
+	@Override
+	protected void onCreate(Bundle savedInstanceState)
+	{
+		super.onCreate(savedInstanceState);
+		setContentView(new FrameLayout(this));
+	}
+
+}
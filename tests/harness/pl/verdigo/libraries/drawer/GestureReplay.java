@@ -0,0 +1,363 @@
+package pl.verdigo.libraries.drawer;
+
+import pl.verdigo.libraries.drawer.Gesture.Step;
+import android.os.Debug;
+import android.os.SystemClock;
+import android.view.MotionEvent;
+import android.view.View;
+import android.view.View.MeasureSpec;
+
+/**
+ * Headless replay of {@link Gesture} through
+ * {@link BezelSwipe#dispatchTouchEvent(MotionEvent)} and
+ * {@link Drawer#onTouch(View, MotionEvent)}. Replay runs synchronously on the
+ * main thread and drives frames itself: every step is followed by one frame
+ * of running transition and, if requested, one layout pass of the window.
+ * Frames follow each other at the refresh rate of the display, so they never
+ * miss their budget in {@link AdaptiveQuality}.
+ * Every replay produces {@link GestureTrace} which can be checked against
+ * {@link GestureTrace.Budget}.
+ */
+public class GestureReplay
+{
+
+	/**
+	 * Source of allocation count of the current thread.
+	 */
+	public interface AllocationCounter
+	{
+
+		/**
+		 * Returns number of allocations made so far.
+		 * 
+		 * @return Allocations
+		 */
+		long getCount();
+
+	}
+
+	private static final int EFFECT_FADE = 1;
+
+	private static final int EFFECT_MOVE = 2;
+
+	private static final int EFFECT_SCALE = 4;
+
+	private static final int EFFECT_TRANSFORM_3D = 8;
+
+	private static final int EFFECT_MODES = 16;
+
+	private static final long NANOS_PER_MILLI = 1000000L;
+
+	private static final AllocationCounter THREAD_ALLOCATION_COUNTER = new AllocationCounter()
+	{
+		public long getCount()
+		{
+			return Debug.getThreadAllocCount();
+		}
+	};
+
+	private AllocationCounter mAllocationCounter = THREAD_ALLOCATION_COUNTER;
+
+	private Object mAllocationProbe;
+
+	private BezelSwipe mBezelSwipe;
+
+	private Drawer mDrawer;
+
+	private long mFrameInterval;
+
+	private AdaptiveQuality mQuality;
+
+	private TracedDrawer mTracedDrawer;
+
+	/**
+	 * Creates GestureReplay object.
+	 * 
+	 * @param drawer Drawer, has to be initialized and laid out
+	 * @param bezelSwipe BezelSwipe, may be null if no gesture uses bezel
+	 */
+	public <D extends Drawer & TracedDrawer> GestureReplay(D drawer, BezelSwipe bezelSwipe)
+	{
+		mDrawer = drawer;
+		mTracedDrawer = drawer;
+		mBezelSwipe = bezelSwipe;
+
+		mQuality = AdaptiveQuality.getInstance(drawer.mDrawerActivity.getContext());
+		mFrameInterval = mQuality.getFrameBudget();
+	}
+
+	/**
+	 * Runs one frame: next frame of running transition and of tracked drag,
+	 * measured, and layout pass of the window if any view requested it.
+	 */
+	private void advanceFrame(GestureTrace trace, long frameTime)
+	{
+		trace.beginMeasure();
+		mDrawer.getTransitionDriver().doFrame(frameTime);
+		mDrawer.doDragFrame(frameTime);
+		trace.endMeasure();
+
+		if (layout())
+		{
+			trace.onLayoutPass();
+		}
+
+		trace.endFrame();
+	}
+
+	/**
+	 * Verifies that touch handling, position updates and transition frames
+	 * of {@link Drawer}, including {@link AdaptiveQuality}, do not allocate.
+	 * All standard gestures are replayed with every combination of effects,
+	 * each one once to warm up and once measured. Every combination starts
+	 * at full quality and has to stay there, otherwise effects would be
+	 * disabled and their path not checked. Content is reused during the
+	 * check, because re-inflating it is not part of the per-frame path.
+	 * 
+	 * @param y Vertical position of touch
+	 * @throws IllegalStateException if any frame allocates, quality level
+	 *             drops or allocation counter does not count allocations at
+	 *             all
+	 */
+	public void checkAllocationFree(int y)
+	{
+		checkAllocationCounter();
+
+		boolean adaptiveQuality = mDrawer.isAdaptiveQuality();
+		boolean fade = mDrawer.isFadeDrawer();
+		boolean move = mDrawer.isMoveDrawer();
+		boolean scale = mDrawer.isScaleDrawer();
+		boolean transform3d = mDrawer.isTransform3dDrawer();
+		boolean reuse = mDrawer.isReuse();
+
+		mDrawer.setAdaptiveQuality(true);
+		mDrawer.setReuse(true);
+
+		int level = mQuality.getLevel();
+
+		try
+		{
+			for (int effects = 0; effects < EFFECT_MODES; effects++)
+			{
+				mDrawer.setFadeDrawer((effects & EFFECT_FADE) != 0);
+				mDrawer.setMoveDrawer((effects & EFFECT_MOVE) != 0);
+				mDrawer.setScaleDrawer((effects & EFFECT_SCALE) != 0);
+				mDrawer.setTransform3dDrawer((effects & EFFECT_TRANSFORM_3D) != 0);
+				mQuality.setLevel(AdaptiveQuality.QUALITY_FULL);
+
+				Gesture[] gestures = new Gesture[] {
+						Gesture.slowDrag(mDrawer, y), Gesture.fastFling(mDrawer, y), Gesture.edgeSwipe(mDrawer, y),
+						Gesture.verticalScroll(mDrawer, y), Gesture.interruptedAnimation(mDrawer, y)
+				};
+
+				for (Gesture gesture : gestures)
+				{
+					if (mBezelSwipe == null && gesture.usesBezel())
+					{
+						continue;
+					}
+
+					replay(gesture);
+
+					GestureTrace trace = replay(gesture);
+					if (trace.getMaxFrameAllocations() > 0)
+					{
+						throw new IllegalStateException("Allocation in frame, effects " + effects + ", " + trace);
+					}
+
+					if (mQuality.getLevel() != AdaptiveQuality.QUALITY_FULL)
+					{
+						throw new IllegalStateException("Quality dropped to " + mQuality.getLevel() + ", effects "
+								+ effects + ", " + trace);
+					}
+				}
+			}
+		}
+		finally
+		{
+			mQuality.setLevel(level);
+
+			mDrawer.setAdaptiveQuality(adaptiveQuality);
+			mDrawer.setFadeDrawer(fade);
+			mDrawer.setMoveDrawer(move);
+			mDrawer.setScaleDrawer(scale);
+			mDrawer.setTransform3dDrawer(transform3d);
+			mDrawer.setReuse(reuse);
+		}
+	}
+
+	/**
+	 * Verifies that allocation counter counts allocations, so the check does
+	 * not pass only because the counter always returns the same value, e.g.
+	 * {@link Debug#getThreadAllocCount()} stubbed on JVM.
+	 * 
+	 * @throws IllegalStateException if allocation is not counted
+	 */
+	private void checkAllocationCounter()
+	{
+		boolean countAllocations = mAllocationCounter == THREAD_ALLOCATION_COUNTER;
+		if (countAllocations)
+		{
+			Debug.startAllocCounting();
+		}
+
+		try
+		{
+			long count = mAllocationCounter.getCount();
+			mAllocationProbe = new Object();
+
+			if (mAllocationCounter.getCount() == count)
+			{
+				throw new IllegalStateException("Allocation counter does not count allocations");
+			}
+		}
+		finally
+		{
+			mAllocationProbe = null;
+
+			if (countAllocations)
+			{
+				Debug.stopAllocCounting();
+			}
+		}
+	}
+
+	/**
+	 * Lays out the window right away if any view requested layout, as
+	 * traversal of the window would in the next frame.
+	 * 
+	 * @return true if layout pass was needed
+	 */
+	private boolean layout()
+	{
+		View root = mDrawer.mDrawerActivity.getRootView();
+		if (!root.isLayoutRequested())
+		{
+			return false;
+		}
+
+		root.measure(MeasureSpec.makeMeasureSpec(root.getWidth(), MeasureSpec.EXACTLY),
+				MeasureSpec.makeMeasureSpec(root.getHeight(), MeasureSpec.EXACTLY));
+		root.layout(root.getLeft(), root.getTop(), root.getRight(), root.getBottom());
+
+		return true;
+	}
+
+	private void perform(Step step, MotionEvent event)
+	{
+		switch (step.mType)
+		{
+			case Gesture.STEP_OPEN:
+			{
+				mDrawer.showWithoutAnimation();
+				break;
+			}
+			case Gesture.STEP_SHOW:
+			{
+				mDrawer.show();
+				break;
+			}
+			case Gesture.STEP_TOUCH_BEZEL:
+			{
+				mBezelSwipe.dispatchTouchEvent(event);
+				break;
+			}
+			case Gesture.STEP_TOUCH_DRAWER:
+			{
+				mDrawer.onTouch(null, event);
+				break;
+			}
+			case Gesture.STEP_FRAME:
+			default:
+			{
+				break;
+			}
+		}
+	}
+
+	/**
+	 * Replays {@link Gesture}. Has to be called on the main thread.
+	 * {@link Drawer} is closed without animation first, so every gesture
+	 * starts from the same state. Allocations of {@link Drawer} are counted
+	 * per frame, both in touch handling and in transition frames.
+	 * 
+	 * @param gesture Gesture
+	 * @return GestureTrace
+	 */
+	public GestureTrace replay(Gesture gesture)
+	{
+		mDrawer.prewarm();
+		mDrawer.getTransitionDriver().cancel();
+		mDrawer.cancelWithoutAnimation();
+		layout();
+
+		GestureTrace trace = new GestureTrace(gesture.getName(), mAllocationCounter);
+		mTracedDrawer.setGestureTrace(trace);
+
+		boolean countAllocations = mAllocationCounter == THREAD_ALLOCATION_COUNTER;
+		if (countAllocations)
+		{
+			Debug.startAllocCounting();
+		}
+
+		long startTime = SystemClock.uptimeMillis();
+		long downTime = startTime;
+		long startFrameTime = System.nanoTime();
+		long elapsed = 0;
+
+		try
+		{
+			for (Step step : gesture.getSteps())
+			{
+				long time = startTime + elapsed / NANOS_PER_MILLI;
+
+				MotionEvent event = null;
+				if (step.mType == Gesture.STEP_TOUCH_BEZEL || step.mType == Gesture.STEP_TOUCH_DRAWER)
+				{
+					if (step.mAction == MotionEvent.ACTION_DOWN)
+					{
+						downTime = time;
+					}
+
+					event = MotionEvent.obtain(downTime, time, step.mAction, step.mX, step.mY, 0);
+				}
+
+				trace.beginMeasure();
+				perform(step, event);
+				trace.endMeasure();
+
+				advanceFrame(trace, startFrameTime + elapsed);
+
+				if (event != null)
+				{
+					event.recycle();
+				}
+
+				elapsed += mFrameInterval;
+			}
+		}
+		finally
+		{
+			if (countAllocations)
+			{
+				Debug.stopAllocCounting();
+			}
+
+			mTracedDrawer.setGestureTrace(null);
+		}
+
+		return trace;
+	}
+
+	/**
+	 * Sets source of allocation count. By default allocations of the current
+	 * thread are counted with {@link Debug}.
+	 * 
+	 * @param allocationCounter AllocationCounter
+	 */
+	public void setAllocationCounter(AllocationCounter allocationCounter)
+	{
+		mAllocationCounter = allocationCounter;
+	}
+
+}
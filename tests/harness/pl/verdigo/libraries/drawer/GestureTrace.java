@@ -0,0 +1,267 @@
+package pl.verdigo.libraries.drawer;
+
+import pl.verdigo.libraries.drawer.GestureReplay.AllocationCounter;
+
+/**
+ * Result of {@link Gesture} replayed by {@link GestureReplay}. Records
+ * position of {@link Drawer} at the end of every frame, number of layout
+ * passes and number of allocations. Positions are reported by
+ * {@link TracedLeftDrawer}. Allocations are counted only within touch
+ * handling and transition frames, so allocations of layout and of the test
+ * environment are not included.
+ */
+public class GestureTrace
+{
+
+	private static final int INITIAL_CAPACITY = 256;
+
+	private final AllocationCounter mAllocationCounter;
+
+	private long mAllocations = 0;
+
+	private long mFrameAllocations = 0;
+
+	private int mFrameCount = 0;
+
+	private int[] mFramePositions = new int[INITIAL_CAPACITY];
+
+	private int mLayoutPasses = 0;
+
+	private long mMaxFrameAllocations = 0;
+
+	private int mMaxPositionsPerFrame = 0;
+
+	private int mMeasureDepth = 0;
+
+	private long mMeasureStart;
+
+	private final String mName;
+
+	private int mPosition = 0;
+
+	private int mPositionCount = 0;
+
+	private int mPositionsInFrame = 0;
+
+	GestureTrace(String name, AllocationCounter allocationCounter)
+	{
+		mName = name;
+		mAllocationCounter = allocationCounter;
+	}
+
+	/**
+	 * Starts counting allocations of {@link Drawer} code. Calls can be nested,
+	 * only the outermost one is counted.
+	 */
+	void beginMeasure()
+	{
+		if (mMeasureDepth++ == 0)
+		{
+			mMeasureStart = mAllocationCounter.getCount();
+		}
+	}
+
+	/**
+	 * Closes frame. Called outside of measured code, so growing the buffer is
+	 * not counted as allocation of {@link Drawer}.
+	 */
+	void endFrame()
+	{
+		long allocations = mFrameAllocations;
+		mFrameAllocations = 0;
+
+		if (mFrameCount == mFramePositions.length)
+		{
+			int[] positions = new int[mFramePositions.length * 2];
+			System.arraycopy(mFramePositions, 0, positions, 0, mFrameCount);
+			mFramePositions = positions;
+		}
+
+		mFramePositions[mFrameCount++] = mPosition;
+
+		mAllocations += allocations;
+		mMaxFrameAllocations = Math.max(mMaxFrameAllocations, allocations);
+
+		mMaxPositionsPerFrame = Math.max(mMaxPositionsPerFrame, mPositionsInFrame);
+		mPositionsInFrame = 0;
+	}
+
+	/**
+	 * Stops counting allocations started by {@link #beginMeasure()}.
+	 */
+	void endMeasure()
+	{
+		if (--mMeasureDepth == 0)
+		{
+			mFrameAllocations += mAllocationCounter.getCount() - mMeasureStart;
+		}
+	}
+
+	/**
+	 * Returns number of allocations made during the whole gesture.
+	 * 
+	 * @return Allocations
+	 */
+	public long getAllocations()
+	{
+		return mAllocations;
+	}
+
+	/**
+	 * Returns number of replayed frames.
+	 * 
+	 * @return Frames
+	 */
+	public int getFrameCount()
+	{
+		return mFrameCount;
+	}
+
+	/**
+	 * Returns position of {@link Drawer} at the end of every frame.
+	 * 
+	 * @return Positions, one per frame
+	 */
+	public int[] getFramePositions()
+	{
+		int[] positions = new int[mFrameCount];
+		System.arraycopy(mFramePositions, 0, positions, 0, mFrameCount);
+
+		return positions;
+	}
+
+	/**
+	 * Returns number of layout passes of the window.
+	 * 
+	 * @return Layout passes
+	 */
+	public int getLayoutPasses()
+	{
+		return mLayoutPasses;
+	}
+
+	/**
+	 * Returns the highest number of allocations made in a single frame.
+	 * 
+	 * @return Allocations
+	 */
+	public long getMaxFrameAllocations()
+	{
+		return mMaxFrameAllocations;
+	}
+
+	/**
+	 * Returns the biggest change of position between two consecutive frames.
+	 * Stutter shows up as a jump much bigger than the average one.
+	 * 
+	 * @return Distance in pixels
+	 */
+	public int getMaxPositionJump()
+	{
+		int jump = 0;
+
+		for (int i = 1; i < mFrameCount; i++)
+		{
+			jump = Math.max(jump, Math.abs(mFramePositions[i] - mFramePositions[i - 1]));
+		}
+
+		return jump;
+	}
+
+	/**
+	 * Returns the highest number of position updates within a single frame.
+	 * Anything above one is wasted work.
+	 * 
+	 * @return Position updates
+	 */
+	public int getMaxPositionsPerFrame()
+	{
+		return mMaxPositionsPerFrame;
+	}
+
+	/**
+	 * Returns name of replayed {@link Gesture}.
+	 * 
+	 * @return Name
+	 */
+	public String getName()
+	{
+		return mName;
+	}
+
+	/**
+	 * Returns number of position updates during the whole gesture.
+	 * 
+	 * @return Position updates
+	 */
+	public int getPositionCount()
+	{
+		return mPositionCount;
+	}
+
+	/**
+	 * Checks whether trace fits into provided budget.
+	 * 
+	 * @param budget Budget
+	 * @return Boolean
+	 */
+	public boolean isWithin(Budget budget)
+	{
+		return mLayoutPasses <= budget.mMaxLayoutPasses && mMaxFrameAllocations <= budget.mMaxFrameAllocations
+				&& getMaxPositionJump() <= budget.mMaxPositionJump && mMaxPositionsPerFrame <= budget.mMaxPositionsPerFrame;
+	}
+
+	void onLayoutPass()
+	{
+		mLayoutPasses++;
+	}
+
+	void onPosition(int position)
+	{
+		mPosition = position;
+		mPositionCount++;
+		mPositionsInFrame++;
+	}
+
+	@Override
+	public String toString()
+	{
+		return mName + ": frames=" + mFrameCount + ", positions=" + mPositionCount + ", maxPositionsPerFrame="
+				+ mMaxPositionsPerFrame + ", maxPositionJump=" + getMaxPositionJump() + ", layoutPasses=" + mLayoutPasses
+				+ ", allocations=" + mAllocations + ", maxFrameAllocations=" + mMaxFrameAllocations;
+	}
+
+	/**
+	 * Performance budget of a {@link Gesture}.
+	 */
+	public static class Budget
+	{
+
+		private final long mMaxFrameAllocations;
+
+		private final int mMaxLayoutPasses;
+
+		private final int mMaxPositionJump;
+
+		private final int mMaxPositionsPerFrame;
+
+		/**
+		 * Creates Budget object.
+		 * 
+		 * @param maxLayoutPasses Maximum number of layout passes
+		 * @param maxFrameAllocations Maximum number of allocations per frame
+		 * @param maxPositionJump Maximum change of position between frames
+		 * @param maxPositionsPerFrame Maximum number of position updates per
+		 *            frame
+		 */
+		public Budget(int maxLayoutPasses, long maxFrameAllocations, int maxPositionJump, int maxPositionsPerFrame)
+		{
+			mMaxLayoutPasses = maxLayoutPasses;
+			mMaxFrameAllocations = maxFrameAllocations;
+			mMaxPositionJump = maxPositionJump;
+			mMaxPositionsPerFrame = maxPositionsPerFrame;
+		}
+
+	}
+
+}
@@ -0,0 +1,16 @@
+package pl.verdigo.libraries.drawer;
+
+/**
+ * {@link Drawer} which reports every position to {@link GestureTrace}.
+ */
+public interface TracedDrawer
+{
+
+	/**
+	 * Sets trace receiving positions.
+	 * 
+	 * @param gestureTrace GestureTrace, null to stop tracing
+	 */
+	void setGestureTrace(GestureTrace gestureTrace);
+
+}
@@ -0,0 +1,35 @@
+package pl.verdigo.libraries.drawer;
+
+import pl.verdigo.libraries.drawer.internal.LeftDrawer;
+import android.content.Context;
+
+/**
+ * Left {@link Drawer} which reports every position to {@link GestureTrace}.
+ */
+public class TracedLeftDrawer extends LeftDrawer implements TracedDrawer
+{
+
+	private GestureTrace mGestureTrace;
+
+	public TracedLeftDrawer(Context context, int layout)
+	{
+		super(context, layout);
+	}
+
+	public void setGestureTrace(GestureTrace gestureTrace)
+	{
+		mGestureTrace = gestureTrace;
+	}
+
+	@Override
+	protected void setPosition(int position)
+	{
+		super.setPosition(position);
+
+		if (mGestureTrace != null)
+		{
+			mGestureTrace.onPosition(position);
+		}
+	}
+
+}
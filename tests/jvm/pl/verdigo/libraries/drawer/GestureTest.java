@@ -0,0 +1,177 @@
+package pl.verdigo.libraries.drawer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import pl.verdigo.libraries.drawer.internal.TransitionFreezeLayout;
+import android.os.Build;
+import android.view.View;
+import android.view.View.MeasureSpec;
+import android.view.ViewGroup;
+
+/**
+ * Replays standard gestures on JVM and checks them against performance
+ * budgets. Frames and layout passes are driven by {@link GestureReplay}, so
+ * no display is needed. Allocations are not checked here, as they cannot be
+ * counted on JVM, see AllocationTest.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class GestureTest
+{
+
+	private static final int DRAG_AREA = 48;
+
+	/**
+	 * Layout passes allowed on top of one per position update, e.g. for
+	 * removing {@link Drawer} at the end of close.
+	 */
+	private static final int EXTRA_LAYOUT_PASSES = 1;
+
+	/**
+	 * Version reported to {@link TransitionDriver}, so frames are posted to
+	 * Handler of Robolectric rather than to Choreographer, which needs a
+	 * display. Frames are driven by {@link GestureReplay} either way.
+	 */
+	private static final int FRAME_SOURCE_SDK = Build.VERSION_CODES.ICE_CREAM_SANDWICH_MR1;
+
+	private static final long UNLIMITED_ALLOCATIONS = Long.MAX_VALUE;
+
+	private static final int WINDOW_HEIGHT = 800;
+
+	private static final int WINDOW_WIDTH = 480;
+
+	private GestureActivity mActivity;
+
+	private TracedLeftDrawer mDrawer;
+
+	private GestureReplay mReplay;
+
+	private int mSdk;
+
+	private int mY;
+
+	private void assertWithin(GestureTrace trace, int maxPositionJump)
+	{
+		GestureTrace.Budget budget = new GestureTrace.Budget(trace.getPositionCount() + EXTRA_LAYOUT_PASSES,
+				UNLIMITED_ALLOCATIONS, maxPositionJump, 1);
+
+		assertTrue(trace.toString(), trace.isWithin(budget));
+	}
+
+	private int getLastPosition(GestureTrace trace)
+	{
+		return trace.getFramePositions()[trace.getFrameCount() - 1];
+	}
+
+	@Before
+	public void setUp()
+	{
+		mSdk = Build.VERSION.SDK_INT;
+		Robolectric.Reflection.setFinalStaticField(Build.VERSION.class, "SDK_INT", FRAME_SOURCE_SDK);
+
+		mActivity = Robolectric.buildActivity(GestureActivity.class).create().start().resume().visible().get();
+
+		View decorView = mActivity.getWindow().getDecorView();
+		decorView.measure(MeasureSpec.makeMeasureSpec(WINDOW_WIDTH, MeasureSpec.EXACTLY),
+				MeasureSpec.makeMeasureSpec(WINDOW_HEIGHT, MeasureSpec.EXACTLY));
+		decorView.layout(0, 0, WINDOW_WIDTH, WINDOW_HEIGHT);
+
+		mDrawer = new TracedLeftDrawer(mActivity, android.R.layout.simple_list_item_1);
+		mDrawer.setReuse(true);
+		mDrawer.init();
+
+		mReplay = new GestureReplay(mDrawer, new BezelSwipe(mDrawer, mActivity.getWindow(), 0, DRAG_AREA));
+		mY = WINDOW_HEIGHT / 2;
+	}
+
+	@After
+	public void tearDown()
+	{
+		Robolectric.Reflection.setFinalStaticField(Build.VERSION.class, "SDK_INT", mSdk);
+	}
+
+	@Test
+	public void canceledSwipe()
+	{
+		mDrawer.setFreezeDuringTransition(true);
+
+		GestureTrace trace = mReplay.replay(Gesture.canceledSwipe(mDrawer, mY));
+
+		ViewGroup content = (ViewGroup) mActivity.findViewById(android.R.id.content);
+		TransitionFreezeLayout freeze = (TransitionFreezeLayout) content.getChildAt(0);
+
+		assertEquals(mDrawer.getDrawerWidth(), getLastPosition(trace));
+		assertFalse(freeze.isFrozen());
+		assertWithin(trace, mDrawer.getDrawerWidth() / 4);
+	}
+
+	@Test
+	public void edgeSwipe()
+	{
+		GestureTrace trace = mReplay.replay(Gesture.edgeSwipe(mDrawer, mY));
+
+		assertTrue(trace.toString(), trace.getPositionCount() > 0);
+		assertEquals(mDrawer.getDrawerWidth(), getLastPosition(trace));
+		assertWithin(trace, mDrawer.getDrawerWidth() / 4);
+	}
+
+	@Test
+	public void fastFling()
+	{
+		GestureTrace trace = mReplay.replay(Gesture.fastFling(mDrawer, mY));
+
+		assertEquals(0, getLastPosition(trace));
+		assertWithin(trace, mDrawer.getDrawerWidth() / 3);
+	}
+
+	@Test
+	public void interruptedAnimation()
+	{
+		GestureTrace trace = mReplay.replay(Gesture.interruptedAnimation(mDrawer, mY));
+
+		assertWithin(trace, mDrawer.getDrawerWidth() / 4);
+	}
+
+	@Test
+	public void pausedDrag()
+	{
+		AdaptiveQuality quality = AdaptiveQuality.getInstance(mActivity);
+		quality.setLevel(AdaptiveQuality.QUALITY_FULL);
+
+		mDrawer.setAdaptiveQuality(true);
+		mDrawer.setFadeDrawer(true);
+		mDrawer.setMoveDrawer(true);
+		mDrawer.setScaleDrawer(true);
+		mDrawer.setTransform3dDrawer(true);
+
+		GestureTrace trace = mReplay.replay(Gesture.pausedDrag(mDrawer, mY));
+
+		assertEquals(0, getLastPosition(trace));
+		assertEquals(trace.toString(), AdaptiveQuality.QUALITY_FULL, quality.getLevel());
+	}
+
+	@Test
+	public void slowDrag()
+	{
+		GestureTrace trace = mReplay.replay(Gesture.slowDrag(mDrawer, mY));
+
+		assertEquals(0, getLastPosition(trace));
+		assertWithin(trace, mDrawer.getDrawerWidth() / 10);
+	}
+
+	@Test
+	public void verticalScroll()
+	{
+		GestureTrace trace = mReplay.replay(Gesture.verticalScroll(mDrawer, mY));
+
+		assertTrue(trace.toString(), trace.isWithin(new GestureTrace.Budget(0, 0, 0, 0)));
+		assertEquals(0, trace.getPositionCount());
+	}
+
+}
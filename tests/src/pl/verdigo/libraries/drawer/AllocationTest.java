@@ -0,0 +1,122 @@
+package pl.verdigo.libraries.drawer;
+
+import android.test.ActivityInstrumentationTestCase2;
+import android.util.TypedValue;
+
+/**
+ * Checks that per-frame path of {@link Drawer} does not allocate. Runs on
+ * device or emulator, because allocations are counted with
+ * {@link android.os.Debug#getThreadAllocCount()}, which is not implemented
+ * on JVM. Budgets of gestures are checked on JVM by GestureTest.
+ */
+public class AllocationTest extends ActivityInstrumentationTestCase2<GestureActivity>
+{
+
+	private static final float DRAG_AREA_DP = 48;
+
+	private RuntimeException mFailure;
+
+	private GestureReplay mReplay;
+
+	private int mY;
+
+	public AllocationTest()
+	{
+		super(GestureActivity.class);
+	}
+
+	private void checkAllocationFree(final GestureReplay replay)
+	{
+		mFailure = null;
+
+		getInstrumentation().runOnMainSync(new Runnable()
+		{
+			public void run()
+			{
+				try
+				{
+					replay.checkAllocationFree(mY);
+				}
+				catch (RuntimeException e)
+				{
+					mFailure = e;
+				}
+			}
+		});
+
+		if (mFailure != null)
+		{
+			throw mFailure;
+		}
+	}
+
+	/**
+	 * Initializes {@link Drawer} and creates {@link GestureReplay} for it,
+	 * once window has been laid out.
+	 * 
+	 * @param drawer Drawer
+	 * @return GestureReplay
+	 */
+	private <D extends Drawer & TracedDrawer> GestureReplay createReplay(final D drawer)
+	{
+		final GestureActivity activity = getActivity();
+
+		getInstrumentation().runOnMainSync(new Runnable()
+		{
+			public void run()
+			{
+				drawer.setReuse(true);
+				drawer.init();
+			}
+		});
+
+		getInstrumentation().waitForIdleSync();
+
+		getInstrumentation().runOnMainSync(new Runnable()
+		{
+			public void run()
+			{
+				int dragArea = Math.round(TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP, DRAG_AREA_DP, activity
+						.getResources().getDisplayMetrics()));
+
+				BezelSwipe bezelSwipe = new BezelSwipe(drawer, activity.getWindow(), 0, dragArea);
+				mReplay = new GestureReplay(drawer, bezelSwipe);
+				mY = activity.getWindow().getDecorView().getHeight() / 2;
+			}
+		});
+
+		return mReplay;
+	}
+
+	public void testAllocationCounter()
+	{
+		GestureReplay replay = createReplay(new TracedLeftDrawer(getActivity(), android.R.layout.simple_list_item_1));
+		replay.setAllocationCounter(new GestureReplay.AllocationCounter()
+		{
+			public long getCount()
+			{
+				return 0;
+			}
+		});
+
+		try
+		{
+			checkAllocationFree(replay);
+			fail("Allocation counter which does not count has been accepted");
+		}
+		catch (IllegalStateException e)
+		{
+		}
+	}
+
+	public void testAllocationFree()
+	{
+		checkAllocationFree(createReplay(new TracedLeftDrawer(getActivity(), android.R.layout.simple_list_item_1)));
+	}
+
+	public void testAllocationFreeRightDrawer()
+	{
+		checkAllocationFree(createReplay(new TracedRightDrawer(getActivity(), android.R.layout.simple_list_item_1)));
+	}
+
+}